@@ -1,6 +1,7 @@
 package com.ekommerce.config;
 
 import com.ekommerce.service.CustomUserDetailsService;
+import com.ekommerce.service.GuestCartTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -67,6 +68,8 @@ public class SecurityConfig {
                         // Public GET
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/categories/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/images/products/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/images/products/**").permitAll()
 
                         // Seller/Admin CRUD
                         .requestMatchers(HttpMethod.POST, "/api/products/**").hasAnyRole("SELLER","ADMIN")
@@ -90,6 +93,7 @@ public class SecurityConfig {
         c.addAllowedOriginPattern("http://localhost:3000");
         c.addAllowedMethod("*"); // GET, POST, PUT, DELETE
         c.addAllowedHeader("*"); // Authorization dahil
+        c.addExposedHeader(GuestCartTokenService.HEADER); // misafir sepet belirteci
         c.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -5,11 +5,16 @@ import com.ekommerce.entity.User;
 import com.ekommerce.entity.UserRole;
 import com.ekommerce.entity.UserRole.RoleType;
 import com.ekommerce.service.AdminService;
+import com.ekommerce.service.ProductExportService;
 import com.ekommerce.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +30,9 @@ public class AdminController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
     public AdminController(AdminService adminService) { this.adminService = adminService; }
 
     @GetMapping("/users")
@@ -95,16 +103,44 @@ public class AdminController {
 
     // Products admin endpoints
     @GetMapping("/products")
-    public ResponseEntity<?> getAllProducts(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getAllProducts(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String name) {
         try {
             adminService.validateAdminToken(token); // validate
-            java.util.List<ProductDto> products = productService.getAllProducts();
+            Page<ProductDto> products = productService.getFilteredProducts(
+                    name, null, null, null, "createdAt", "desc", Math.max(page, 0), Math.min(Math.max(size, 1), 100));
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // Tüm katalog: format=ndjson (varsayılan) veya csv; satırlar akış halinde yazılır
+    @GetMapping("/products/export")
+    public void exportProducts(
+            @RequestHeader("Authorization") String token,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        try {
+            adminService.validateAdminToken(token);
+        } catch (Exception e) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, e.getMessage());
+            return;
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"products.csv\"");
+            productExportService.exportCsv(response.getOutputStream());
+        } else {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"products.ndjson\"");
+            productExportService.exportNdjson(response.getOutputStream());
+        }
+    }
+
     @PutMapping("/products/{id}")
     public ResponseEntity<?> updateProduct(
             @RequestHeader("Authorization") String token,
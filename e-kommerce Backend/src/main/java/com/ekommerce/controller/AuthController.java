@@ -4,6 +4,10 @@ import com.ekommerce.dto.LoginDto;
 import com.ekommerce.dto.RegisterDto;
 import com.ekommerce.entity.User;
 import com.ekommerce.service.AuthService;
+import com.ekommerce.service.CartService;
+import com.ekommerce.service.GuestCartTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +15,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,13 +25,24 @@ import java.util.Map;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private GuestCartTokenService cartTokens;
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDto dto) {
+    public ResponseEntity<?> login(@RequestBody LoginDto dto,
+            @RequestParam(required = false) String sessionId,
+            HttpServletRequest request, HttpServletResponse httpResponse) {
         try {
             Map<String, Object> resp = authService.login(dto);
+            mergeGuestCart(sessionId, request, httpResponse, resp);
             return ResponseEntity.ok(resp);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -33,7 +50,9 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterDto registerDto, BindingResult bindingResult) {
+    public ResponseEntity<?> register(@Valid @RequestBody RegisterDto registerDto, BindingResult bindingResult,
+            @RequestParam(required = false) String sessionId,
+            HttpServletRequest request, HttpServletResponse httpResponse) {
         try {
             System.out.println("=== REGISTER REQUEST START ===");
             System.out.println("Register request received: " + registerDto);
@@ -58,6 +77,7 @@ public class AuthController {
             }
 
             Map<String, Object> response = authService.register(registerDto);
+            mergeGuestCart(sessionId, request, httpResponse, response);
             System.out.println("Registration successful");
             return ResponseEntity.ok(response);
             
@@ -69,6 +89,23 @@ public class AuthController {
         }
     }
 
+    // Misafir sepeti (imzalı sepet belirteci: sessionId parametresi, X-Cart-Token başlığı ya da çerez) girişte bir kez
+    // kullanıcı sepetine aktarılır ve belirteç çerezi silinir. Sepet işlemleri her istekte birleştirme yapmaz; buradaki hata girişi bozmaz.
+    private void mergeGuestCart(String sessionId, HttpServletRequest request, HttpServletResponse httpResponse,
+                                Map<String, Object> response) {
+        String guestId = cartTokens.resolve(request, sessionId);
+        if (guestId == null || !(response.get("user") instanceof Map<?, ?> user) || !(user.get("id") instanceof Long userId)) {
+            return;
+        }
+        try {
+            cartService.mergeSessionCart(guestId, userId);
+            cartTokens.clear(httpResponse);
+        } catch (RuntimeException e) {
+            // Giriş başarılı; birleştirme hatası yanıtı bozmaz, misafir belirteci bir sonraki girişte yeniden denenir
+            log.warn("Misafir sepeti birleştirilemedi (kullanıcı {})", userId, e);
+        }
+    }
+
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String token) {
         try {
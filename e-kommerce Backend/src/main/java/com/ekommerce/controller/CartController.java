@@ -1,7 +1,9 @@
 package com.ekommerce.controller;
 
+import com.ekommerce.dto.CartBatchRequest;
 import com.ekommerce.dto.CartDto;
 import com.ekommerce.service.CartService;
+import com.ekommerce.service.GuestCartTokenService;
 import com.ekommerce.service.JwtService;
 import com.ekommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -24,6 +27,9 @@ public class CartController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private GuestCartTokenService cartTokens;
+
     private Long getUserIdFromToken(HttpServletRequest request) {
         try {
             String token = extractTokenFromRequest(request);
@@ -48,12 +54,27 @@ public class CartController {
         return null;
     }
 
-    private String ensureSessionId(String sessionId, HttpServletRequest request) {
-        if (sessionId == null || sessionId.isBlank()) {
-            // Tarayıcı session id kullan (misafir sepetleri için)
-            return request.getSession(true).getId();
+    // Misafir kimliği imzalı belirteçten (sessionId parametresi, X-Cart-Token başlığı veya çerez) okunur; HttpSession açılmaz.
+    // Belirteç yoksa ya da imzası geçersizse misafirin sepeti de yoktur.
+    private String guestId(String sessionId, HttpServletRequest request) {
+        return cartTokens.resolve(request, sessionId);
+    }
+
+    // Ekleme için: geçerli belirteç yoksa yenisi üretilir ve yanıta yazılır (kullanıcı girişliyse gerekmez)
+    private String ensureGuestId(String sessionId, Long userId, HttpServletRequest request, HttpServletResponse response) {
+        if (userId != null) return null;
+        String guestId = guestId(sessionId, request);
+        if (guestId == null) guestId = cartTokens.newGuestId();
+        cartTokens.write(response, guestId);
+        return guestId;
+    }
+
+    // Yanıttaki sessionId ham misafir kimliği değil, istemcinin geri göndereceği imzalı belirteçtir
+    private CartDto withToken(CartDto cart) {
+        if (cart != null && cart.getSessionId() != null) {
+            cart.setSessionId(cartTokens.tokenFor(cart.getSessionId()));
         }
-        return sessionId;
+        return cart;
     }
 
     @GetMapping
@@ -62,9 +83,9 @@ public class CartController {
             HttpServletRequest request) {
 
         Long userId = getUserIdFromToken(request);
-        String sid = ensureSessionId(sessionId, request);
+        String sid = userId == null ? guestId(sessionId, request) : null;
         CartDto cart = cartService.getCartDto(sid, userId);
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok(withToken(cart));
     }
 
     @PostMapping("/add")
@@ -72,12 +93,29 @@ public class CartController {
             @RequestParam(required = false) String sessionId,
             @RequestParam Long productId,
             @RequestParam(defaultValue = "1") Integer quantity,
-            HttpServletRequest httpRequest) {
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
 
         Long userId = getUserIdFromToken(httpRequest);
-        String sid = ensureSessionId(sessionId, httpRequest);
+        String sid = ensureGuestId(sessionId, userId, httpRequest, httpResponse);
         CartDto cart = cartService.addToCart(sid, userId, productId, quantity);
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok(withToken(cart));
+    }
+
+    // Birden çok ekle/güncelle/sil işlemi tek istekte ve tek transaction'da; biri geçersizse hiçbiri uygulanmaz
+    @PostMapping("/batch")
+    public ResponseEntity<CartDto> applyBatch(
+            @RequestParam(required = false) String sessionId,
+            @RequestBody CartBatchRequest batch,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+
+        Long userId = getUserIdFromToken(httpRequest);
+        String sid = batch.hasAdd()
+                ? ensureGuestId(sessionId, userId, httpRequest, httpResponse)
+                : (userId == null ? guestId(sessionId, httpRequest) : null);
+        CartDto cart = cartService.applyBatch(sid, userId, batch);
+        return ResponseEntity.ok(withToken(cart));
     }
 
     @PutMapping("/update/{itemId}")
@@ -88,9 +126,9 @@ public class CartController {
             HttpServletRequest httpRequest) {
 
         Long userId = getUserIdFromToken(httpRequest);
-        String sid = ensureSessionId(sessionId, httpRequest);
+        String sid = userId == null ? guestId(sessionId, httpRequest) : null;
         CartDto cart = cartService.updateCartItem(sid, userId, itemId, quantity);
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok(withToken(cart));
     }
 
     @DeleteMapping("/remove/{itemId}")
@@ -100,9 +138,9 @@ public class CartController {
             HttpServletRequest httpRequest) {
 
         Long userId = getUserIdFromToken(httpRequest);
-        String sid = ensureSessionId(sessionId, httpRequest);
+        String sid = userId == null ? guestId(sessionId, httpRequest) : null;
         CartDto cart = cartService.removeFromCart(sid, userId, itemId);
-        return ResponseEntity.ok(cart);
+        return ResponseEntity.ok(withToken(cart));
     }
 
     @DeleteMapping("/clear")
@@ -111,7 +149,7 @@ public class CartController {
             HttpServletRequest request) {
 
         Long userId = getUserIdFromToken(request);
-        String sid = ensureSessionId(sessionId, request);
+        String sid = userId == null ? guestId(sessionId, request) : null;
         cartService.clearCart(sid, userId);
         return ResponseEntity.ok().build();
     }
@@ -2,9 +2,11 @@ package com.ekommerce.controller;
 
 import com.ekommerce.entity.Category;
 import com.ekommerce.service.CategoryService;
+import com.ekommerce.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import java.util.List;
 import java.util.Map;
 
@@ -15,14 +17,21 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    // If-None-Match eşleşirse 304; liste serileştirilmez
     @GetMapping
-    public List<Category> getAllCategories() {
+    public List<Category> getAllCategories(ServletWebRequest request) {
+        if (ETags.checkNotModified(request, new ETags.Version(categoryService.getCategoriesETag(), -1))) {
+            return null;
+        }
         return categoryService.getAllCategories();
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable Long id, ServletWebRequest request) {
         try {
+            if (ETags.checkNotModified(request, new ETags.Version(categoryService.getCategoryETag(id), -1))) {
+                return null;
+            }
             Category category = categoryService.getCategoryById(id);
             return ResponseEntity.ok(category);
         } catch (Exception e) {
@@ -1,8 +1,21 @@
 package com.ekommerce.controller;
 
+import com.ekommerce.dto.CursorPageDto;
+import com.ekommerce.dto.FacetedPage;
 import com.ekommerce.dto.ProductDto;
+import com.ekommerce.dto.ProductImageDto;
+import com.ekommerce.dto.SuggestionDto;
 import com.ekommerce.entity.Product;
+import com.ekommerce.service.CategoryProductsCache;
+import com.ekommerce.service.ProductCoPurchaseIndex;
+import com.ekommerce.service.ProductDetailCache;
+import com.ekommerce.service.ProductFacetIndex;
+import com.ekommerce.service.ProductImportService;
+import com.ekommerce.service.ProductQueryCache;
+import com.ekommerce.service.ProductRankingService;
 import com.ekommerce.service.ProductService;
+import com.ekommerce.service.ProductSuggestIndex;
+import com.ekommerce.util.ETags;
 
 import jakarta.annotation.security.PermitAll;
 
@@ -10,12 +23,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -29,15 +42,30 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private com.ekommerce.service.ProductCounterService productCounterService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
     // UserService enjeksiyonu eklendi
     @Autowired
     private com.ekommerce.service.UserService userService;
 
     // JwtUtil no longer needed for extracting user id here
 
+    // cursor parametresi verilirse (ilk sayfa için boş) keyset modu kullanılır: toplam sayı yok, "next" cursor döner.
+    // facets=true ile sayfanın yanına kategori/satıcı/durum sayıları ve fiyat aralıkları eklenir.
+    // Sayfa modunda (facets olmadan) yanıt ETag taşır; If-None-Match eşleşirse 304 döner.
     @GetMapping
     @PermitAll
-    public ResponseEntity<Page<ProductDto>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -45,14 +73,33 @@ public class ProductController {
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean facets,
+            ServletWebRequest request) {
+
+        if (cursor != null) {
+            try {
+                CursorPageDto<ProductDto> slice = productService.getProductsByCursor(
+                        name, categoryId, minPrice, maxPrice, sortBy, sortDir, cursor, Math.min(Math.max(size, 1), 100)
+                );
+                return ResponseEntity.ok(slice);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
 
     // Sorting handled by service-level pageable
 
-        Page<Product> productPage = productService.getFilteredProducts(
+        ProductQueryCache.Listing listing = productService.getFilteredListing(
                 name, categoryId, minPrice, maxPrice, sortBy, sortDir, page, size
         );
-        Page<ProductDto> products = productPage.map(this::convertToDto);
+        Page<ProductDto> products = listing.page();
+        if (facets) {
+            products = new FacetedPage<>(products, productFacetIndex.facets(name, categoryId, minPrice, maxPrice));
+        } else if (ETags.checkNotModified(request, new ETags.Version(listing.etag(), -1))) {
+            return null;
+        }
 
         return ResponseEntity.ok(products);
     }
@@ -63,16 +110,58 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        // Sonuçlar alaka skoruna göre sıralanır
+        Pageable pageable = PageRequest.of(page, size);
         Page<ProductDto> products = productService.searchProducts(query, pageable);
         return ResponseEntity.ok(products);
     }
 
+    // Arama kutusu için önek tamamlama; bellek içi trie'den, satışa göre sıralı
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
+        int n = Math.max(1, Math.min(limit, ProductSuggestIndex.MAX_RESULTS));
+        return ResponseEntity.ok(productSuggestIndex.suggest(prefix, n));
+    }
+
+    // Çok satanlar (tüm zamanlar) ve trend olanlar (son saat); categoryId verilirse o kategori içinde
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<ProductDto>> bestSellers(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, ProductRankingService.MAX_RESULTS));
+        return ResponseEntity.ok(productService.getBestSellers(categoryId, n));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<ProductDto>> trending(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, ProductRankingService.MAX_RESULTS));
+        return ResponseEntity.ok(productService.getTrending(categoryId, n));
+    }
+
+    // Bu ürünle aynı siparişte en sık alınan ürünler
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductDto>> related(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, ProductCoPurchaseIndex.MAX_NEIGHBORS));
+        return ResponseEntity.ok(productService.getRelatedProducts(id, n));
+    }
+
+    // Detay yakın önbellekten (eşzamanlı ıskalamalar tek yüklemede birleşir); istemcinin kopyası güncelse
+    // gövde serileştirilmeden 304 döner
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id, ServletWebRequest request) {
         try {
-            ProductDto product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            ProductDetailCache.Detail detail = productService.getProductDetail(id);
+            productCounterService.recordView(id);
+            if (ETags.checkNotModified(request, detail.version())) {
+                return null;
+            }
+            return ResponseEntity.ok(detail.dto());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -175,6 +264,23 @@ public class ProductController {
         }
     }
 
+    // Toplu ürün ekleme: CSV (başlık satırı: name,description,price,stock,categoryId|categoryName,imageUrl,featured)
+    // veya NDJSON (satır başına bir JSON nesnesi). format verilmezse dosya uzantısına bakılır.
+    @PostMapping("/seller/import")
+    @PreAuthorize("hasRole('SELLER')")
+    public ResponseEntity<?> importProducts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            Authentication auth) {
+        try {
+            Long sellerId = getUserIdFromAuthentication(auth);
+            return ResponseEntity.ok(productImportService.importProducts(file, format, sellerId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Ürün güncelle (sadece sahip satıcı)
     @PutMapping("/seller/{productId}")
     @PreAuthorize("hasRole('SELLER')")
@@ -235,8 +341,9 @@ public class ProductController {
             Authentication auth) {
         try {
             Long sellerId = getUserIdFromAuthentication(auth);
-            List<String> imageUrls = productService.uploadProductImages(productId, files, sellerId);
-            return ResponseEntity.ok(Map.of("imageUrls", imageUrls));
+            List<ProductImageDto> images = productService.uploadProductImages(productId, files, sellerId);
+            List<String> imageUrls = images.stream().map(ProductImageDto::getUrl).toList();
+            return ResponseEntity.ok(Map.of("imageUrls", imageUrls, "images", images));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
@@ -245,26 +352,38 @@ public class ProductController {
 
     @PermitAll
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductDto>> getFeaturedProducts() {
+    public ResponseEntity<byte[]> getFeaturedProducts() {
         try {
-            List<ProductDto> featuredProducts = productService.getFeaturedProducts();
-            return ResponseEntity.ok(featuredProducts);
+            byte[] featuredProducts = productService.getFeaturedProductsJson();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(featuredProducts);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // cursor veya size verilirse sayfalı yanıt (CursorPageDto) döner; verilmezse eski davranış: düz liste.
+    // İkisi de kategori başına önbellekten sunulur.
     @PermitAll
     @GetMapping("/category/{id}")
-    public ResponseEntity<List<ProductDto>> byCategory(@PathVariable Long id) {
+    public ResponseEntity<?> byCategory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            ServletWebRequest request) {
         try {
-            Page<Product> productPage = productService.getFilteredProducts(
-                    null, id, null, null, "createdAt", "desc", 0, 1000
-            );
-            List<ProductDto> products = productPage.getContent().stream()
-                    .map(this::convertToDto)
-                    .toList();
-            return ResponseEntity.ok(products);
+            CategoryProductsCache.Listing<?> listing;
+            if (cursor == null && size == null) {
+                listing = productService.getCategoryProductList(id);
+            } else {
+                int pageSize = size == null ? 20 : Math.max(1, Math.min(size, 100));
+                listing = productService.getCategoryProducts(id, cursor, pageSize);
+            }
+            if (ETags.checkNotModified(request, new ETags.Version(listing.etag(), -1))) {
+                return null;
+            }
+            return ResponseEntity.ok(listing.body());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -280,19 +399,4 @@ public class ProductController {
         }
         throw new RuntimeException("Unsupported principal");
     }
-
-    private ProductDto convertToDto(Product product) {
-        ProductDto dto = new ProductDto();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setStock(product.getStock());
-        dto.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
-        dto.setSellerId(product.getSeller() != null ? product.getSeller().getId() : null);
-        dto.setImageUrl(product.getImageUrl());
-        dto.setCreatedAt(product.getCreatedAt());
-        dto.setUpdatedAt(product.getUpdatedAt());
-        return dto;
-    }
 }
\ No newline at end of file
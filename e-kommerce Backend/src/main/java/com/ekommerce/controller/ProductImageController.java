@@ -0,0 +1,202 @@
+package com.ekommerce.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Ürün resimleri: genel statik kaynak zinciri yerine doğrudan dosyadan, sıfır kopya ile sunulur.
+// Dosya adları içerikten türetildiği (ya da UUID olduğu) için içerik değişmez; yanıtlar süresiz önbelleklenebilir.
+@RestController
+public class ProductImageController {
+
+    // Yalnızca tamamlanmış dosyaların adları: içerik özetli (<32 hex>[_thumb|_medium]) ya da eski UUID adları.
+    // ProductImageService'in yazmakta olduğu upload-*.tmp / variant-*.tmp dosyaları hiçbir zaman sunulmaz.
+    private static final Pattern SAFE_NAME = Pattern.compile(
+            "(?:[0-9a-f]{32}(?:_thumb|_medium)?|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})"
+                    + "\\.(?:jpe?g|png|gif|bmp|webp)", Pattern.CASE_INSENSITIVE);
+    // ProductImageService'in ürettiği adlar: <32 hex>[_thumb|_medium].<ext>; hash zaten içerik özeti
+    private static final Pattern HASHED_NAME = Pattern.compile("([0-9a-f]{32}(?:_thumb|_medium)?)\\.[a-z]+");
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // Tomcat NIO sendfile: dosya çekirdek tarafından doğrudan sokete yazılır (küçük dosyalarda gerek yok)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    @Value("${product.images.dir:src/main/resources/static/images/products/}")
+    private String imageDir;
+
+    // Eski (UUID adlı) dosyalar için hesaplanan içerik özetleri; boyut/tarih değişirse yeniden hesaplanır
+    private final ConcurrentHashMap<String, Validator> validators = new ConcurrentHashMap<>();
+
+    private record Validator(long size, long modified, String etag) { }
+
+    @RequestMapping(value = "/images/products/{fileName:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (!SAFE_NAME.matcher(fileName).matches()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = Paths.get(imageDir).resolve(fileName);
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (!attrs.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attrs.size();
+        String etag = etagOf(fileName, file, attrs);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attrs.lastModifiedTime().toMillis());
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] r = parseRange(range, length);
+            if (r != null && r.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (r != null) {
+                start = r[0];
+                end = r[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) break;
+                position += sent;
+            }
+        }
+    }
+
+    private String etagOf(String fileName, Path file, BasicFileAttributes attrs) throws IOException {
+        Matcher m = HASHED_NAME.matcher(fileName);
+        if (m.matches()) {
+            return '"' + m.group(1) + '"';
+        }
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        Validator v = validators.get(fileName);
+        if (v == null || v.size() != size || v.modified() != modified) {
+            v = new Validator(size, modified, '"' + sha256(file) + '"');
+            validators.put(fileName, v);
+        }
+        return v.etag();
+    }
+
+    private static boolean etagMatches(String header, String etag) {
+        if (header == null) return false;
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    // Tek aralık desteklenir: bytes=a-b, bytes=a-, bytes=-n. Geçersiz ya da çoklu aralıkta null (tüm dosya),
+    // karşılanamayan aralıkta boş dizi (416) döner.
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String from = spec.substring(0, dash).trim();
+            String to = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (from.isEmpty()) {
+                if (to.isEmpty()) return null;
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0) return new long[0];
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(from);
+                if (!to.isEmpty() && Long.parseLong(to) < start) return null;
+                end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+            }
+            if (start >= length) return new long[0];
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
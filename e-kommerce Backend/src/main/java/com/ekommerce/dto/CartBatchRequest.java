@@ -0,0 +1,40 @@
+package com.ekommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// POST /api/cart/batch gövdesi: sırayla uygulanan sepet işlemleri
+public class CartBatchRequest {
+
+    private List<Operation> operations = new ArrayList<>();
+
+    public enum Type {
+        ADD, UPDATE, REMOVE
+    }
+
+    // ADD: productId + quantity (mevcut adede eklenir)
+    // UPDATE: itemId veya productId + quantity (0 ise kalem silinir)
+    // REMOVE: itemId veya productId
+    public static class Operation {
+        private Type type;
+        private Long itemId;
+        private Long productId;
+        private Integer quantity;
+
+        public Type getType() { return type; }
+        public void setType(Type type) { this.type = type; }
+        public Long getItemId() { return itemId; }
+        public void setItemId(Long itemId) { this.itemId = itemId; }
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+        public Integer getQuantity() { return quantity; }
+        public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    }
+
+    public List<Operation> getOperations() { return operations; }
+    public void setOperations(List<Operation> operations) { this.operations = operations; }
+
+    public boolean hasAdd() {
+        return operations != null && operations.stream().anyMatch(op -> op != null && op.getType() == Type.ADD);
+    }
+}
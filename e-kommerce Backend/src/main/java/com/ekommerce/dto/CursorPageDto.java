@@ -0,0 +1,30 @@
+package com.ekommerce.dto;
+
+import java.util.List;
+
+// Keyset sayfalama yanıtı: toplam sayı yok, sonraki sayfa için opak cursor var
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private String next;
+    private int size;
+
+    public CursorPageDto() { }
+
+    public CursorPageDto(List<T> content, String next, int size) {
+        this.content = content;
+        this.next = next;
+        this.size = size;
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+
+    public String getNext() { return next; }
+    public void setNext(String next) { this.next = next; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasNext() { return next != null; }
+}
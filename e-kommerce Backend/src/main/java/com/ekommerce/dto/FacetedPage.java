@@ -0,0 +1,17 @@
+package com.ekommerce.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+// Page JSON sözleşmesi korunur, yanına "facets" alanı eklenir
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ProductFacetsDto facets;
+
+    public FacetedPage(Page<T> page, ProductFacetsDto facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ProductFacetsDto getFacets() { return facets; }
+}
@@ -16,6 +16,9 @@ public class ProductDto {
     private String sellerName;
     private String sellerShopName;
     private String imageUrl;
+    // İçerik hash'li resimlerin küçültülmüş varyantları; hazır değilse null (imageUrl kullanılır)
+    private String thumbnailUrl;
+    private String mediumUrl;
     private boolean featured;
     private Long views;
     private Long sales;
@@ -58,6 +61,12 @@ public class ProductDto {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getMediumUrl() { return mediumUrl; }
+    public void setMediumUrl(String mediumUrl) { this.mediumUrl = mediumUrl; }
+
     public Long getViews() { return views; }
     public void setViews(Long views) { this.views = views; }
 
@@ -0,0 +1,54 @@
+package com.ekommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// GET /api/products?facets=true yanıtındaki "facets" bloğu
+public class ProductFacetsDto {
+
+    private List<FacetCount> categories;
+    private List<FacetCount> sellers;
+    private List<FacetCount> statuses;
+    private List<PriceBucket> priceBuckets;
+
+    public static class FacetCount {
+        private final Object key;
+        private final long count;
+
+        public FacetCount(Object key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public Object getKey() { return key; }
+        public long getCount() { return count; }
+    }
+
+    public static class PriceBucket {
+        private final BigDecimal from;
+        private final BigDecimal to; // null: üst sınır yok
+        private final long count;
+
+        public PriceBucket(BigDecimal from, BigDecimal to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public BigDecimal getFrom() { return from; }
+        public BigDecimal getTo() { return to; }
+        public long getCount() { return count; }
+    }
+
+    public List<FacetCount> getCategories() { return categories; }
+    public void setCategories(List<FacetCount> categories) { this.categories = categories; }
+
+    public List<FacetCount> getSellers() { return sellers; }
+    public void setSellers(List<FacetCount> sellers) { this.sellers = sellers; }
+
+    public List<FacetCount> getStatuses() { return statuses; }
+    public void setStatuses(List<FacetCount> statuses) { this.statuses = statuses; }
+
+    public List<PriceBucket> getPriceBuckets() { return priceBuckets; }
+    public void setPriceBuckets(List<PriceBucket> priceBuckets) { this.priceBuckets = priceBuckets; }
+}
@@ -0,0 +1,23 @@
+package com.ekommerce.dto;
+
+// Yüklenen resim: orijinal ve varyant adresleri. Varyantlar arka planda üretilir;
+// variantsReady false ise thumbnailUrl/mediumUrl kısa süre sonra erişilebilir olur.
+public class ProductImageDto {
+
+    private String url;
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private boolean variantsReady;
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getMediumUrl() { return mediumUrl; }
+    public void setMediumUrl(String mediumUrl) { this.mediumUrl = mediumUrl; }
+
+    public boolean isVariantsReady() { return variantsReady; }
+    public void setVariantsReady(boolean variantsReady) { this.variantsReady = variantsReady; }
+}
@@ -0,0 +1,49 @@
+package com.ekommerce.dto;
+
+import java.util.List;
+
+// POST /api/products/seller/import yanıtı: satır bazlı hatalar ve işlem hızı
+public class ProductImportReport {
+
+    private long totalRows;
+    private long inserted;
+    private long failed;
+    private long durationMs;
+    private long rowsPerMinute;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getMessage() { return message; }
+    }
+
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+
+    public long getInserted() { return inserted; }
+    public void setInserted(long inserted) { this.inserted = inserted; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getRowsPerMinute() { return rowsPerMinute; }
+    public void setRowsPerMinute(long rowsPerMinute) { this.rowsPerMinute = rowsPerMinute; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+}
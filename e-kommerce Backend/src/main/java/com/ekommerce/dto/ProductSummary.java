@@ -0,0 +1,25 @@
+package com.ekommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Listeleme sorgularının product_read tablosundan JOIN'siz doldurduğu kompakt projeksiyon (entity yüklenmez)
+public record ProductSummary(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stock,
+        String imageUrl,
+        Boolean featured,
+        Long views,
+        Long sales,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        Long categoryId,
+        String categoryName,
+        Long sellerId,
+        String sellerName,
+        String sellerShopName) {
+}
@@ -0,0 +1,22 @@
+package com.ekommerce.dto;
+
+// GET /api/products/suggest öğesi: type "product" ise id ürün id'si, "category" ise kategori id'si
+public class SuggestionDto {
+
+    private final String text;
+    private final String type;
+    private final Long id;
+    private final long weight;
+
+    public SuggestionDto(String text, String type, Long id, long weight) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+        this.weight = weight;
+    }
+
+    public String getText() { return text; }
+    public String getType() { return type; }
+    public Long getId() { return id; }
+    public long getWeight() { return weight; }
+}
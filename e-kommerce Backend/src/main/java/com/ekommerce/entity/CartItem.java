@@ -1,12 +1,12 @@
 package com.ekommerce.entity;
 
+import com.ekommerce.util.Money;
+import com.ekommerce.util.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Entity
 @Table(name = "cart_item")
 @Data
@@ -32,11 +32,12 @@ public class CartItem {
     @Column(nullable = false)
     private Integer quantity;
 
-    // Birim fiyat (sepete eklendiği andaki fiyat)
+    // Birim fiyat (sepete eklendiği andaki fiyat); sütun DECIMAL, bellekte kuruş
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "price_at_time", nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    private Money price;
 
-    public BigDecimal getTotalPrice() {
-        return price.multiply(BigDecimal.valueOf(quantity));
+    public Money getTotalPrice() {
+        return price.times(quantity);
     }
 }
\ No newline at end of file
@@ -5,13 +5,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Yalnızca değişen sütunlar yazılır: fiyat düzenlemesi, koşullu UPDATE ile düşen stoğu (ProductStockService) ezmez
 @Entity
 @Table(name = "product")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,10 +53,11 @@ public class Product {
     @Enumerated(EnumType.STRING)
     private Status status = Status.ACTIVE;
 
-    @Column(name = "views")
+    // Sayaçlar yalnızca ProductCounterService'in SQL artışlarıyla değişir; varlık yazımı bayat değeri geri yazmasın
+    @Column(name = "views", updatable = false)
     private Long views = 0L;
 
-    @Column(name = "sales")
+    @Column(name = "sales", updatable = false)
     private Long sales = 0L;
 
     @Column(name = "created_at")
@@ -62,6 +66,11 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Her güncellemede artan düzenleme sayacı (ETag için; updated_at saniye hassasiyetinde).
+    // @Version değil: eşzamanlı stok yazımlarında iyimser kilit hatası üretmez.
+    @Column(name = "version", nullable = false)
+    private Long version = 0L;
+
     // İlişkiler
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -84,6 +93,7 @@ public class Product {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        version = version == null ? 1L : version + 1;
     }
 
     // Stok kontrolü
@@ -93,11 +103,16 @@ public class Product {
 
     // Stok güncelleme
     public void updateStock(int quantity) {
-        if (this.stock == null) this.stock = 0;
-        this.stock += quantity;
-        if (this.stock <= 0) {
+        applyStock((this.stock == null ? 0 : this.stock) + quantity);
+    }
+
+    // ProductStockService SQL'i ile aynı kural: ACTIVE stok bitince OUT_OF_STOCK, stok gelince yeniden ACTIVE;
+    // satıcının pasife aldığı (INACTIVE) ürünün durumu değişmez
+    public void applyStock(int stock) {
+        this.stock = stock;
+        if (stock <= 0 && this.status == Status.ACTIVE) {
             this.status = Status.OUT_OF_STOCK;
-        } else if (this.status == Status.OUT_OF_STOCK) {
+        } else if (stock > 0 && this.status == Status.OUT_OF_STOCK) {
             this.status = Status.ACTIVE;
         }
     }
@@ -0,0 +1,73 @@
+package com.ekommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Katalog okumalarının kaynağı: ürünün listeleme alanları + kategori ve satıcı adları tek satırda (JOIN yok).
+// Yalnızca ProductReadModel yazar; id product.id ile aynıdır.
+@Entity
+@Table(name = "product_read")
+@Data
+@NoArgsConstructor
+public class ProductRead {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // TurkishText.fold(name): ad filtresi bunun üzerinde (ProductFacetIndex ile aynı eşleşme kuralı).
+    // İkili karşılaştırma: harmanlamanın büyük/küçük harf ve aksan eşitlemeleri kurala karışmasın
+    @Column(name = "name_folded", columnDefinition = "VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin")
+    private String nameFolded;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    private Integer stock;
+
+    @Column(name = "image_url")
+    private String imageUrl;
+
+    private Boolean featured;
+
+    @Enumerated(EnumType.STRING)
+    private Product.Status status;
+
+    private Long views;
+
+    private Long sales;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "category_name")
+    private String categoryName;
+
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    // "Ad Soyad" (ProductReadModel.sellerName)
+    @Column(name = "seller_name")
+    private String sellerName;
+
+    @Column(name = "seller_shop_name")
+    private String sellerShopName;
+}
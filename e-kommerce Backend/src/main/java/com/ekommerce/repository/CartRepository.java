@@ -1,6 +1,7 @@
 package com.ekommerce.repository;
 
 import com.ekommerce.entity.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +15,13 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
 
     Optional<Cart> findBySessionId(String sessionId);
 
+    // Giriş anı birleştirmesi: sepet ve kalemleri tek sorguda
+    @EntityGraph(attributePaths = {"cartItems"})
+    Optional<Cart> findWithItemsBySessionId(String sessionId);
+
+    @EntityGraph(attributePaths = {"cartItems"})
+    Optional<Cart> findWithItemsByUser_Id(Long userId);
+
     void deleteBySessionId(String sessionId);
 
     void deleteByUser_Id(Long userId);
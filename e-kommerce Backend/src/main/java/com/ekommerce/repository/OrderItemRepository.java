@@ -2,10 +2,11 @@ package com.ekommerce.repository;
 
 import com.ekommerce.entity.Orders;
 import com.ekommerce.entity.OrderItem;
+import com.ekommerce.entity.OrderStatus;
 import com.ekommerce.entity.Product;
 import com.ekommerce.entity.User;
 
-
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,7 +15,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long>, OrderItemRepositoryCustom {
     List<OrderItem> findByOrder(Orders order);
     List<OrderItem> findBySeller(User seller);
     List<OrderItem> findAllByOrderByCreatedAtDesc();
@@ -24,4 +25,9 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId AND oi.seller.id = :sellerId")
     List<OrderItem> findByOrderIdAndSellerId(@Param("orderId") Long orderId, @Param("sellerId") Long sellerId);
+
+    // Trend penceresinin ilk yüklemesi: ürün id, kategori id, adet, sipariş zamanı (iptaller hariç)
+    @Query("SELECT p.id, c.id, oi.quantity, o.createdAt FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+            + "LEFT JOIN p.category c WHERE o.createdAt >= :since AND o.status <> :excluded")
+    List<Object[]> findSaleRowsSince(@Param("since") LocalDateTime since, @Param("excluded") OrderStatus excluded);
 }
@@ -0,0 +1,11 @@
+package com.ekommerce.repository;
+
+import com.ekommerce.entity.OrderStatus;
+
+import java.util.stream.Stream;
+
+public interface OrderItemRepositoryCustom {
+
+    // Birlikte alınanlar indeksinin ilk yüklemesi: sipariş id'sine göre sıralı (sipariş id, ürün id) akışı
+    Stream<Object[]> streamOrderProducts(long upTo, OrderStatus excluded);
+}
@@ -0,0 +1,29 @@
+package com.ekommerce.repository;
+
+import com.ekommerce.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Varsayılan Integer.MIN_VALUE: Connector/J yalnızca bu ifadede satırları tek tek okur, sonucu belleğe almaz
+    @Value("${db.stream-fetch-size:-2147483648}")
+    private int fetchSize;
+
+    @Override
+    public Stream<Object[]> streamOrderProducts(long upTo, OrderStatus excluded) {
+        return entityManager.createQuery("SELECT o.id, p.id FROM OrderItem oi JOIN oi.order o JOIN oi.product p "
+                        + "WHERE o.id <= :upTo AND o.status <> :excluded ORDER BY o.id", Object[].class)
+                .setParameter("upTo", upTo)
+                .setParameter("excluded", excluded)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
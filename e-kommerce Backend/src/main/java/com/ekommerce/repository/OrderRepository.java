@@ -3,6 +3,7 @@ package com.ekommerce.repository;
 import com.ekommerce.entity.Orders;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,4 +24,7 @@ public interface OrderRepository extends JpaRepository<Orders, Long> {
     @Override
     @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "user", "seller"})
     Optional<Orders> findById(Long id);
+
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM Orders o")
+    long findMaxOrderId();
 }
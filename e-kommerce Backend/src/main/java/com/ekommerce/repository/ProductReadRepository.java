@@ -0,0 +1,24 @@
+package com.ekommerce.repository;
+
+import com.ekommerce.dto.ProductSummary;
+import com.ekommerce.entity.ProductRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+// Yalnızca okuma; yazımlar ProductReadModel üzerinden (JDBC upsert)
+@Repository
+public interface ProductReadRepository extends JpaRepository<ProductRead, Long>, JpaSpecificationExecutor<ProductRead>,
+        ProductReadRepositoryCustom {
+
+    String SUMMARY = "new com.ekommerce.dto.ProductSummary(r.id, r.name, r.description, r.price, r.stock, "
+            + "r.imageUrl, r.featured, r.views, r.sales, r.createdAt, r.updatedAt, r.version, "
+            + "r.categoryId, r.categoryName, r.sellerId, r.sellerName, r.sellerShopName)";
+
+    @Query("select " + SUMMARY + " from ProductRead r where r.id = :id")
+    Optional<ProductSummary> findSummaryById(@Param("id") Long id);
+}
@@ -0,0 +1,18 @@
+package com.ekommerce.repository;
+
+import com.ekommerce.dto.ProductSummary;
+import com.ekommerce.entity.ProductRead;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductReadRepositoryCustom {
+
+    // Sadece DTO sütunlarını seçer; tek tablo, JOIN yok
+    List<ProductSummary> findSummaries(Specification<ProductRead> spec, Sort sort, long offset, int limit);
+
+    // Admin dışa aktarımı: id sırasıyla ileri yönlü akış. Akış kapanana kadar bağlantı başka sorgu çalıştıramaz
+    Stream<ProductSummary> streamAllSummaries();
+}
@@ -0,0 +1,64 @@
+package com.ekommerce.repository;
+
+import com.ekommerce.dto.ProductSummary;
+import com.ekommerce.entity.ProductRead;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ProductReadRepositoryCustomImpl implements ProductReadRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Varsayılan Integer.MIN_VALUE: Connector/J yalnızca bu ifadede satırları tek tek okur, sonucu belleğe almaz
+    @Value("${db.stream-fetch-size:-2147483648}")
+    private int streamFetchSize;
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<ProductRead> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<ProductRead> root = query.from(ProductRead.class);
+
+        query.select(cb.construct(ProductSummary.class,
+                root.get("id"), root.get("name"), root.get("description"),
+                root.get("price"), root.get("stock"), root.get("imageUrl"),
+                root.get("featured"), root.get("views"), root.get("sales"),
+                root.get("createdAt"), root.get("updatedAt"), root.get("version"),
+                root.get("categoryId"), root.get("categoryName"),
+                root.get("sellerId"), root.get("sellerName"), root.get("sellerShopName")));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        if (sort != null && sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ProductSummary> streamAllSummaries() {
+        return entityManager.createQuery("select " + ProductReadRepository.SUMMARY + " from ProductRead r order by r.id",
+                        ProductSummary.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .getResultStream();
+    }
+}
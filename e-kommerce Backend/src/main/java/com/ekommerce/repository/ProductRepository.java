@@ -1,7 +1,11 @@
 package com.ekommerce.repository;
 
 import com.ekommerce.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -31,11 +35,31 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     Optional<Product> findByIdAndSeller_Id(Long id, Long sellerId);
 
+    // Düzenleme yolları: satır kilitlenir; okunan stok/durum/sürüm commit'e kadar eşzamanlı sipariş düşümleriyle değişmez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findForUpdateById(@Param("id") Long id);
+
     List<Product> findAllBySeller_Id(Long sellerId);
 
+    List<Product> findByImageUrl(String imageUrl);
+
     // Featured & public queries
     List<Product> findTop12ByFeaturedTrueOrderByCreatedAtDesc();
 
     // Fallback: latest products when no featured ones exist
     List<Product> findTop12ByOrderByCreatedAtDesc();
+
+    // Facet indeksinin ilk yüklemesi: id, kategori, satıcı, fiyat, durum, ad
+    @Query("select p.id, c.id, s.id, p.price, p.status, p.name from Product p "
+            + "left join p.category c left join p.seller s")
+    List<Object[]> findFacetRows();
+
+    // Öneri (autocomplete) indeksinin yüklemesi: id, ad, kategori id, kategori adı, satış, durum
+    @Query("select p.id, p.name, c.id, c.name, p.sales, p.status from Product p left join p.category c")
+    List<Object[]> findSuggestRows();
+
+    // Çok satanlar sıralamasının ilk yüklemesi: id, kategori id, satış
+    @Query("select p.id, c.id, p.sales from Product p left join p.category c")
+    List<Object[]> findSalesRows();
 }
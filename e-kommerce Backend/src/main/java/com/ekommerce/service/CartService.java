@@ -1,5 +1,6 @@
 package com.ekommerce.service;
 
+import com.ekommerce.dto.CartBatchRequest;
 import com.ekommerce.dto.CartDto;
 import com.ekommerce.entity.Cart;
 import com.ekommerce.entity.CartItem;
@@ -9,13 +10,23 @@ import com.ekommerce.repository.CartItemRepository;
 import com.ekommerce.repository.CartRepository;
 import com.ekommerce.repository.ProductRepository;
 import com.ekommerce.repository.UserRepository;
+import com.ekommerce.util.LongObjectHashMap;
+import com.ekommerce.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,68 +42,140 @@ public class CartService {
     @Autowired
     private UserRepository userRepository;
 
-    // Sepeti getir veya oluştur (userId varsa kullanıcıya ait, yoksa sessionId'ye ait)
-    public Cart getOrCreateCart(String sessionId, Long userId) {
-        Cart cart;
+    @Value("${cart.batch.max-operations:100}")
+    private int maxBatchOperations;
 
+    // Okuma yolu: sepet yoksa oluşturulmaz (userId varsa kullanıcıya ait, yoksa sessionId'ye ait)
+    private Optional<Cart> findCart(String sessionId, Long userId) {
         if (userId != null) {
-            // Kullanıcıya ait sepet
-            cart = cartRepository.findByUser_Id(userId).orElseGet(Cart::new);
+            return cartRepository.findByUser_Id(userId);
+        }
+        if (sessionId == null || sessionId.isBlank()) {
+            return Optional.empty();
+        }
+        return cartRepository.findBySessionId(sessionId);
+    }
 
-            if (cart.getUser() == null || cart.getUser().getId() == null) {
-                User user = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
-                cart.setUser(user);
-            }
+    // Yazma yolu: sepet ilk değişiklikte kaydedilir
+    public Cart getOrCreateCart(String sessionId, Long userId) {
+        Optional<Cart> existing = findCart(sessionId, userId);
+        if (existing.isPresent()) {
+            Cart cart = existing.get();
+            if (cart.getCartItems() == null) cart.setCartItems(new ArrayList<>());
+            return cart;
+        }
 
-            // Session sepetini kullanıcı sepetine birleştir
-            if (sessionId != null && !sessionId.isBlank()) {
-                Optional<Cart> sessionCart = cartRepository.findBySessionId(sessionId);
-                if (sessionCart.isPresent()) {
-                    mergeSessionCartToUserCart(sessionCart.get(), cart);
-                    cartRepository.delete(sessionCart.get());
-                }
-            }
+        Cart cart = new Cart();
+        if (userId != null) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı"));
+            cart.setUser(user);
         } else {
-            // Misafir sepeti
-            cart = cartRepository.findBySessionId(sessionId).orElseGet(Cart::new);
+            if (sessionId == null || sessionId.isBlank()) throw new RuntimeException("Sepet oturumu bulunamadı");
             cart.setSessionId(sessionId);
         }
+        return cartRepository.save(cart);
+    }
 
-        if (cart.getCartItems() == null) {
-            cart.setCartItems(new ArrayList<>());
+    // Girişte bir kez çağrılır: misafir sepeti kullanıcı sepetine aktarılır. Kullanıcının sepeti yoksa
+    // misafir sepeti doğrudan kullanıcıya devredilir (kalem kopyalanmaz); adetler yine stokla sınırlanır.
+    public void mergeSessionCart(String sessionId, Long userId) {
+        if (sessionId == null || sessionId.isBlank() || userId == null) return;
+        Optional<Cart> sessionCart = cartRepository.findWithItemsBySessionId(sessionId);
+        if (sessionCart.isEmpty()) return;
+
+        Optional<Cart> userCart = cartRepository.findWithItemsByUser_Id(userId);
+        if (userCart.isEmpty()) {
+            Cart cart = sessionCart.get();
+            cart.setUser(userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("Kullanıcı bulunamadı")));
+            cart.setSessionId(null);
+            clampToStock(cart);
+            cartRepository.save(cart);
+            return;
         }
-
-        return cartRepository.save(cart);
+        mergeSessionCartToUserCart(sessionCart.get(), userCart.get());
+        touch(userCart.get());
+        cartRepository.delete(sessionCart.get());
+        // Adet güncellemeleri, yeni kalemler ve misafir sepetinin silinmesi tek flush'ta (hibernate.jdbc.batch_size)
+        cartRepository.flush();
     }
 
+    // Kullanıcı kalemleri productId ile indekslenir, misafir kalemlerinin ürünleri tek sorguda okunur.
+    // Birleşen adet stokla sınırlanır; stoğu kalmamış ürünün kalemi eklenmez (varsa kullanıcı sepetinden de çıkar).
+    // Kalemler tek tek kaydedilmez: yönetilen varlıklar değişir, yeniler cascade ile flush'ta eklenir.
     private void mergeSessionCartToUserCart(Cart sessionCart, Cart userCart) {
-        if (sessionCart.getCartItems() == null) return;
+        List<CartItem> sessionItems = sessionCart.getCartItems() == null ? List.of() : sessionCart.getCartItems();
+        if (sessionItems.isEmpty()) return;
         if (userCart.getCartItems() == null) userCart.setCartItems(new ArrayList<>());
 
-        for (CartItem sessionItem : sessionCart.getCartItems()) {
-            Optional<CartItem> existingItem = userCart.getCartItems().stream()
-                    .filter(item -> item.getProduct().getId().equals(sessionItem.getProduct().getId()))
-                    .findFirst();
-
-            if (existingItem.isPresent()) {
-                CartItem item = existingItem.get();
-                item.setQuantity(item.getQuantity() + sessionItem.getQuantity());
-                cartItemRepository.save(item);
+        // getProduct().getId() proxy'yi başlatmaz
+        LongObjectHashMap<CartItem> userLines = new LongObjectHashMap<>(userCart.getCartItems().size() + sessionItems.size());
+        for (CartItem item : userCart.getCartItems()) {
+            userLines.computeIfAbsent(item.getProduct().getId(), id -> item);
+        }
+        LongObjectHashMap<Product> products = productsOf(sessionItems);
+
+        for (CartItem sessionItem : sessionItems) {
+            long productId = sessionItem.getProduct().getId();
+            Product product = products.get(productId);
+            int stock = stockOf(product);
+            CartItem existing = userLines.get(productId);
+            if (existing != null) {
+                int quantity = Math.min(existing.getQuantity() + sessionItem.getQuantity(), stock);
+                if (quantity > 0) {
+                    existing.setQuantity(quantity);
+                } else {
+                    userCart.getCartItems().removeIf(ci -> ci == existing);
+                }
             } else {
+                int quantity = Math.min(sessionItem.getQuantity(), stock);
+                if (quantity <= 0) continue;
                 CartItem newItem = new CartItem();
                 newItem.setCart(userCart);
-                newItem.setProduct(sessionItem.getProduct());
-                newItem.setQuantity(sessionItem.getQuantity());
+                newItem.setProduct(product);
+                newItem.setQuantity(quantity);
                 newItem.setPrice(sessionItem.getPrice());
-                userCart.getCartItems().add(cartItemRepository.save(newItem));
+                userCart.getCartItems().add(newItem);
+                userLines.computeIfAbsent(productId, id -> newItem);
             }
         }
     }
 
+    // Devredilen misafir sepeti: birleştirmeyle aynı kural, adet stokla sınırlanır, stoğu kalmamış kalem çıkar
+    private void clampToStock(Cart cart) {
+        List<CartItem> items = cart.getCartItems();
+        if (items == null || items.isEmpty()) return;
+        LongObjectHashMap<Product> products = productsOf(items);
+        items.removeIf(item -> {
+            int quantity = Math.min(item.getQuantity(), stockOf(products.get(item.getProduct().getId())));
+            if (quantity <= 0) return true;
+            item.setQuantity(quantity);
+            return false;
+        });
+    }
+
+    // Kalemlerin ürünleri tek sorguda
+    private LongObjectHashMap<Product> productsOf(List<CartItem> items) {
+        Set<Long> productIds = new HashSet<>();
+        items.forEach(ci -> productIds.add(ci.getProduct().getId()));
+        LongObjectHashMap<Product> products = new LongObjectHashMap<>(productIds.size());
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.computeIfAbsent(product.getId(), id -> product);
+        }
+        return products;
+    }
+
+    private static int stockOf(Product product) {
+        return product == null || product.getStock() == null ? 0 : product.getStock();
+    }
+
+    // GET: yalnızca okur; sepet yoksa kaydedilmemiş boş sepet döner
+    @Transactional(readOnly = true)
     public CartDto getCartDto(String sessionId, Long userId) {
-        Cart cart = getOrCreateCart(sessionId, userId);
-        return toDto(cart);
+        return findCart(sessionId, userId)
+                .map(this::toDto)
+                .orElseGet(() -> emptyCartDto(sessionId, userId));
     }
 
     public CartDto addToCart(String sessionId, Long userId, Long productId, int quantity) {
@@ -121,10 +204,11 @@ public class CartService {
             newItem.setCart(cart);
             newItem.setProduct(product);
             newItem.setQuantity(quantity);
-            newItem.setPrice(product.getPrice());
+            newItem.setPrice(Money.of(product.getPrice()));
             cart.getCartItems().add(cartItemRepository.save(newItem));
         }
 
+        touch(cart);
         cart = cartRepository.save(cart);
         return toDto(cart);
     }
@@ -132,7 +216,8 @@ public class CartService {
     public CartDto updateCartItem(String sessionId, Long userId, Long cartItemId, int quantity) {
         if (quantity < 0) throw new RuntimeException("Adet 0 veya daha büyük olmalıdır");
 
-        Cart cart = getOrCreateCart(sessionId, userId);
+        Cart cart = findCart(sessionId, userId)
+                .orElseThrow(() -> new RuntimeException("Sepet ürünü bulunamadı"));
 
         CartItem item = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Sepet ürünü bulunamadı"));
@@ -150,12 +235,14 @@ public class CartService {
             cartItemRepository.save(item);
         }
 
+        touch(cart);
         cart = cartRepository.save(cart);
         return toDto(cart);
     }
 
     public CartDto removeFromCart(String sessionId, Long userId, Long cartItemId) {
-        Cart cart = getOrCreateCart(sessionId, userId);
+        Cart cart = findCart(sessionId, userId)
+                .orElseThrow(() -> new RuntimeException("Sepet ürünü bulunamadı"));
 
         CartItem item = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Sepet ürünü bulunamadı"));
@@ -167,19 +254,129 @@ public class CartService {
         cartItemRepository.delete(item);
         cart.getCartItems().removeIf(ci -> ci.getId().equals(item.getId()));
 
+        touch(cart);
         cart = cartRepository.save(cart);
         return toDto(cart);
     }
 
     public void clearCart(String sessionId, Long userId) {
-        Cart cart = getOrCreateCart(sessionId, userId);
-        if (cart.getCartItems() != null && !cart.getCartItems().isEmpty()) {
+        Cart cart = findCart(sessionId, userId).orElse(null);
+        if (cart != null && cart.getCartItems() != null && !cart.getCartItems().isEmpty()) {
             cartItemRepository.deleteAll(cart.getCartItems());
             cart.getCartItems().clear();
+            touch(cart);
             cartRepository.save(cart);
         }
     }
 
+    // Toplu işlem: sepet bir kez çözülür, ilgili tüm ürünler tek findAllById ile yüklenir, işlemler bellekte
+    // sırayla uygulanır ve değişiklikler tek flush'ta yazılır. Bir işlem geçersizse hiçbiri uygulanmaz.
+    public CartDto applyBatch(String sessionId, Long userId, CartBatchRequest request) {
+        List<CartBatchRequest.Operation> operations = request.getOperations() == null ? List.of() : request.getOperations();
+        if (operations.isEmpty()) return getCartDto(sessionId, userId);
+        if (operations.size() > maxBatchOperations) {
+            throw new RuntimeException("En fazla " + maxBatchOperations + " işlem gönderilebilir");
+        }
+
+        Cart cart = request.hasAdd()
+                ? getOrCreateCart(sessionId, userId)
+                : findCart(sessionId, userId).orElseThrow(() -> new RuntimeException("Sepet ürünü bulunamadı"));
+        if (cart.getCartItems() == null) cart.setCartItems(new ArrayList<>());
+
+        // Sepetteki kalemlerin ve işlemlerin ürünleri birlikte; proxy'ler kalıcılık bağlamından çözülür
+        Set<Long> productIds = new HashSet<>();
+        cart.getCartItems().forEach(ci -> productIds.add(ci.getProduct().getId()));
+        operations.forEach(op -> { if (op != null && op.getProductId() != null) productIds.add(op.getProductId()); });
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, CartItem> lines = new LinkedHashMap<>();
+        cart.getCartItems().forEach(ci -> lines.put(ci.getProduct().getId(), ci));
+
+        for (int i = 0; i < operations.size(); i++) {
+            try {
+                apply(cart, lines, products, operations.get(i));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("İşlem " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        touch(cart);
+        return toDto(cartRepository.saveAndFlush(cart));
+    }
+
+    private void apply(Cart cart, Map<Long, CartItem> lines, Map<Long, Product> products, CartBatchRequest.Operation op) {
+        if (op == null || op.getType() == null) throw new RuntimeException("İşlem türü gerekli");
+        switch (op.getType()) {
+            case ADD -> {
+                int quantity = op.getQuantity() == null ? 1 : op.getQuantity();
+                if (quantity <= 0) throw new RuntimeException("Adet 1 veya daha büyük olmalıdır");
+                Product product = op.getProductId() == null ? null : products.get(op.getProductId());
+                if (product == null) throw new RuntimeException("Ürün bulunamadı");
+                CartItem item = lines.get(product.getId());
+                int newQuantity = (item == null ? 0 : item.getQuantity()) + quantity;
+                if (product.getStock() < newQuantity) throw new RuntimeException("Yetersiz stok");
+                if (item == null) {
+                    item = new CartItem();
+                    item.setCart(cart);
+                    item.setProduct(product);
+                    item.setPrice(Money.of(product.getPrice()));
+                    cart.getCartItems().add(item);
+                    lines.put(product.getId(), item);
+                }
+                item.setQuantity(newQuantity);
+            }
+            case UPDATE -> {
+                if (op.getQuantity() == null || op.getQuantity() < 0) {
+                    throw new RuntimeException("Adet 0 veya daha büyük olmalıdır");
+                }
+                CartItem item = line(lines, op);
+                if (op.getQuantity() == 0) {
+                    remove(cart, lines, item);
+                } else {
+                    if (products.get(item.getProduct().getId()).getStock() < op.getQuantity()) {
+                        throw new RuntimeException("Yetersiz stok");
+                    }
+                    item.setQuantity(op.getQuantity());
+                }
+            }
+            case REMOVE -> remove(cart, lines, line(lines, op));
+        }
+    }
+
+    // Kalem itemId ile ya da (bu toplu işlemde yeni eklenmiş olabileceği için) productId ile bulunur
+    private static CartItem line(Map<Long, CartItem> lines, CartBatchRequest.Operation op) {
+        CartItem item = null;
+        if (op.getItemId() != null) {
+            item = lines.values().stream().filter(ci -> op.getItemId().equals(ci.getId())).findFirst().orElse(null);
+        } else if (op.getProductId() != null) {
+            item = lines.get(op.getProductId());
+        }
+        if (item == null) throw new RuntimeException("Bu ürün sizin sepetinizde değil");
+        return item;
+    }
+
+    // orphanRemoval: flush'ta silinir. Kimlikle karşılaştırılır (@Data equals ilişkileri de gezer)
+    private static void remove(Cart cart, Map<Long, CartItem> lines, CartItem item) {
+        cart.getCartItems().removeIf(ci -> ci == item);
+        lines.remove(item.getProduct().getId());
+    }
+
+    // Kalem değişiklikleri sepet satırını kirletmez; terk edilmiş sepet temizliği (GuestCartSweeper) updated_at'e bakar
+    private static void touch(Cart cart) {
+        cart.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private CartDto emptyCartDto(String sessionId, Long userId) {
+        CartDto dto = new CartDto();
+        dto.setUserId(userId);
+        dto.setSessionId(userId == null ? sessionId : null);
+        dto.setItems(new ArrayList<>());
+        dto.setTotalQuantity(0);
+        dto.setTotalAmount(BigDecimal.ZERO);
+        return dto;
+    }
+
     private CartDto toDto(Cart cart) {
         CartDto dto = new CartDto();
         dto.setId(cart.getId());
@@ -188,27 +385,28 @@ public class CartService {
         dto.setCreatedAt(cart.getCreatedAt());
         dto.setUpdatedAt(cart.getUpdatedAt());
 
-        var items = (cart.getCartItems() == null ? new ArrayList<CartItem>() : cart.getCartItems())
-                .stream()
-                .map(ci -> {
-                    CartDto.Item it = new CartDto.Item();
-                    it.setId(ci.getId());
-                    it.setProductId(ci.getProduct() != null ? ci.getProduct().getId() : null);
-                    it.setProductName(ci.getProduct() != null ? ci.getProduct().getName() : null);
-                    it.setImageUrl(ci.getProduct() != null ? ci.getProduct().getImageUrl() : null);
-                    it.setUnitPrice(ci.getPrice());
-                    it.setQuantity(ci.getQuantity());
-                    it.setLineTotal(ci.getTotalPrice());
-                    return it;
-                })
-                .collect(Collectors.toList());
+        // Satır ve genel toplam kuruş üzerinden; BigDecimal yalnızca yanıt alanları için üretilir
+        List<CartItem> cartItems = cart.getCartItems() == null ? List.of() : cart.getCartItems();
+        List<CartDto.Item> items = new ArrayList<>(cartItems.size());
+        int totalQty = 0;
+        long totalMinor = 0;
+        for (CartItem ci : cartItems) {
+            Money lineTotal = ci.getTotalPrice();
+            CartDto.Item it = new CartDto.Item();
+            it.setId(ci.getId());
+            it.setProductId(ci.getProduct() != null ? ci.getProduct().getId() : null);
+            it.setProductName(ci.getProduct() != null ? ci.getProduct().getName() : null);
+            it.setImageUrl(ci.getProduct() != null ? ci.getProduct().getImageUrl() : null);
+            it.setUnitPrice(ci.getPrice().toBigDecimal());
+            it.setQuantity(ci.getQuantity());
+            it.setLineTotal(lineTotal.toBigDecimal());
+            items.add(it);
+            totalQty += ci.getQuantity();
+            totalMinor = Math.addExact(totalMinor, lineTotal.minor());
+        }
 
         dto.setItems(items);
-
-        int totalQty = items.stream().mapToInt(CartDto.Item::getQuantity).sum();
-        BigDecimal totalAmount = items.stream()
-                .map(CartDto.Item::getLineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalAmount = BigDecimal.valueOf(totalMinor, 2);
 
         dto.setTotalQuantity(totalQty);
         dto.setTotalAmount(totalAmount);
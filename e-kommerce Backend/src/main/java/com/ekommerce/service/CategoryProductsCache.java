@@ -0,0 +1,98 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductSummary;
+import com.ekommerce.entity.Product;
+import com.ekommerce.util.ETags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+// Kategori sayfaları için kategori başına önbellek: en yeniden eskiye (createdAt, id) sıralı kompakt özetlerin
+// ilk "window" kadarı. Kategorideki bir ürün değişince yalnızca o kategorinin kaydı düşürülür.
+@Component
+public class CategoryProductsCache {
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Value("${product.category-cache.window:1000}")
+    private int window;
+
+    // Görüntülenme/satış sayaçları olay yayınlamaz; bu süre sonunda yeniden yüklenir
+    @Value("${product.category-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${product.category-cache.max-categories:500}")
+    private int maxCategories;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Yükleme sırasında bir geçersizleme olduysa eski sonuç önbelleğe yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    // complete: kategorinin tüm ürünleri listede (window'a sığıyor)
+    // etag: satırlar ve resim varyantlarının hazır olup olmadığından; DTO'ya giren her şeyi kapsar
+    public record Entry(List<ProductSummary> rows, Set<Long> ids, boolean complete, long loadedAt, String etag) { }
+
+    // Yanıt gövdesi ve ETag'i aynı kayıttan; etag null ise dilim veritabanından okundu (koşullu GET yok)
+    public record Listing<T>(T body, String etag) { }
+
+    // loader(limit): kategorinin ilk limit ürünü, createdAt desc, id desc
+    public Entry get(Long categoryId, IntFunction<List<ProductSummary>> loader) {
+        Entry e = entries.get(categoryId);
+        if (e != null && System.currentTimeMillis() - e.loadedAt() < ttlMs) {
+            return e;
+        }
+        long gen = generation.get();
+        List<ProductSummary> rows = loader.apply(window + 1);
+        boolean complete = rows.size() <= window;
+        List<ProductSummary> kept = List.copyOf(complete ? rows : rows.subList(0, window));
+        e = new Entry(kept, kept.stream().map(ProductSummary::id).collect(Collectors.toUnmodifiableSet()),
+                complete, System.currentTimeMillis(), etagOf(kept, complete));
+        if (generation.get() == gen) {
+            if (entries.size() >= maxCategories && !entries.containsKey(categoryId)) evictOldest();
+            entries.put(categoryId, e);
+        }
+        return e;
+    }
+
+    // Record toString'i tüm bileşenleri içerir; varyantlar hazır olunca olay yayınlandığından kayıt yenilenir
+    private String etagOf(List<ProductSummary> rows, boolean complete) {
+        Object[] parts = new Object[rows.size() * 2 + 1];
+        int i = 0;
+        for (ProductSummary r : rows) {
+            parts[i++] = r;
+            parts[i++] = productImageService.thumbnailUrl(r.imageUrl()) != null;
+        }
+        parts[i] = complete;
+        return ETags.strong(parts);
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        // Kategorisi değişen ürün için eski kategori de düşürülür
+        event.getAffectedCategoryIds().forEach(entries::remove);
+        for (Product p : event.getProducts()) {
+            if (p.getCategory() == null) entries.values().removeIf(e -> e.ids().contains(p.getId()));
+        }
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .min(Map.Entry.comparingByValue((a, b) -> Long.compare(a.loadedAt(), b.loadedAt())))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+}
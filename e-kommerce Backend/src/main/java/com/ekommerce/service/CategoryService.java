@@ -2,38 +2,121 @@ package com.ekommerce.service;
 
 import com.ekommerce.entity.Category;
 import com.ekommerce.repository.CategoryRepository;
+import com.ekommerce.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
-    
+
     @Autowired
     private CategoryRepository categoryRepository;
-    
+
+    @Autowired
+    private ProductReadModel productReadModel;
+
+    // Kategoriler az ve seyrek değişir: liste ve ETag'leri bellekte tutulur, yazımlarda düşürülür.
+    // Süre, başka bir örnekte yapılan değişikliklerin görünmesi içindir.
+    @Value("${category.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private volatile Snapshot snapshot;
+
+    // Her yazım commit'ten sonra artırır; yazımdan önce başlamış bir yükleme eski listeyi geri koyamaz
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Snapshot(List<Category> categories, Map<Long, Category> byId, String etag, long loadedAt) { }
+
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return snapshot().categories();
+    }
+
+    // Koşullu GET için: liste ve tek kategori ETag'leri veritabanına gitmeden
+    public String getCategoriesETag() {
+        return snapshot().etag();
+    }
+
+    // Kategori yoksa null (çağıran normal yoldan hata döner)
+    public String getCategoryETag(Long id) {
+        Category category = snapshot().byId().get(id);
+        return category == null ? null : ETags.strong(category.getId(), category.getName());
     }
-    
+
     public Category getCategoryById(Long id) {
         return categoryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
     }
-    
+
     public Category createCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        invalidateAfterCommit();
+        return saved;
     }
-    
+
+    // Ürün okuma modelindeki kategori adları aynı transaction'da güncellenir
+    @Transactional
     public Category updateCategory(Long id, Category categoryDetails) {
         Category category = getCategoryById(id);
         category.setName(categoryDetails.getName());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        productReadModel.categoryRenamed(saved);
+        invalidateAfterCommit();
+        return saved;
     }
-    
+
     public void deleteCategory(Long id) {
         Category category = getCategoryById(id);
         categoryRepository.delete(category);
+        invalidateAfterCommit();
+    }
+
+    // Commit'ten önce düşürülürse araya giren okuma eski satırları yeniden yükler
+    private void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+        });
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null && System.currentTimeMillis() - s.loadedAt() < ttlMs) {
+            return s;
+        }
+        long loadGeneration = generation.get();
+        List<Category> categories = List.copyOf(categoryRepository.findAll());
+        Object[] parts = new Object[categories.size() * 2];
+        for (int i = 0; i < categories.size(); i++) {
+            parts[2 * i] = categories.get(i).getId();
+            parts[2 * i + 1] = categories.get(i).getName();
+        }
+        s = new Snapshot(categories,
+                categories.stream().collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity())),
+                ETags.strong(parts), System.currentTimeMillis());
+        if (generation.get() == loadGeneration) {
+            snapshot = s;
+        }
+        return s;
     }
-}
\ No newline at end of file
+}
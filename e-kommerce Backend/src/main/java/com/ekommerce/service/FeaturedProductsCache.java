@@ -0,0 +1,67 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductDto;
+import com.ekommerce.entity.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Ana sayfadaki öne çıkan ürünler: hazır DTO listesi ve serileştirilmiş JSON, yazma anında yenilenir
+@Component
+public class FeaturedProductsCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(List<ProductDto> items, byte[] json, Set<Long> ids, boolean fallback) { }
+
+    public List<ProductDto> getItems(Supplier<List<ProductDto>> loader) {
+        return current(loader).items();
+    }
+
+    public byte[] getJson(Supplier<List<ProductDto>> loader) {
+        return current(loader).json();
+    }
+
+    // Listede olan ya da listeye girebilecek bir ürün değiştiyse yenileme gerekir
+    public boolean isAffectedBy(ProductChangedEvent event) {
+        Snapshot s = snapshot;
+        if (s == null) return false;
+        if (s.fallback()) return true;
+        for (Product p : event.getProducts()) {
+            if (s.ids().contains(p.getId())) return true;
+            if (!event.isDeleted() && Boolean.TRUE.equals(p.getFeatured())) return true;
+        }
+        return false;
+    }
+
+    public synchronized void refresh(Supplier<List<ProductDto>> loader) {
+        List<ProductDto> items = List.copyOf(loader.get());
+        try {
+            snapshot = new Snapshot(
+                    items,
+                    objectMapper.writeValueAsBytes(items),
+                    items.stream().map(ProductDto::getId).collect(Collectors.toUnmodifiableSet()),
+                    items.stream().noneMatch(ProductDto::isFeatured));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Öne çıkan ürünler serileştirilemedi: " + e.getMessage());
+        }
+    }
+
+    private Snapshot current(Supplier<List<ProductDto>> loader) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            refresh(loader);
+            s = snapshot;
+        }
+        return s;
+    }
+}
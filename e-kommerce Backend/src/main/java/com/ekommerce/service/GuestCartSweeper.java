@@ -0,0 +1,130 @@
+package com.ekommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Terk edilmiş misafir sepetlerini (user_id yok, updated_at TTL'den eski) küçük parçalar halinde siler.
+// Her tick tek parça: id üzerinden keyset ile ilerlenir, parça başına tek transaction ve toplu DELETE ... IN.
+// Parçalar arası bekleme tick aralığıdır (zamanlayıcı iş parçacığı uyutulmaz); geçiş bitince bir sonraki geçişe kadar beklenir.
+@Service
+public class GuestCartSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(GuestCartSweeper.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purgedCarts;
+    private final Counter purgedItems;
+    private final Timer chunkTimer;
+
+    @Value("${cart.sweeper.enabled:true}")
+    private boolean enabled;
+
+    // Varsayılan 30 gün
+    @Value("${cart.sweeper.ttl-ms:2592000000}")
+    private long ttlMs;
+
+    @Value("${cart.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cart.sweeper.pass-interval-ms:3600000}")
+    private long passIntervalMs;
+
+    // Geçiş durumu; yalnızca zamanlayıcı iş parçacığı yazar
+    private long cursor;
+    private Timestamp cutoff;
+    private long nextPassAt;
+    private long passStartedAt;
+    private long passCarts;
+    private volatile double lastPassRate;
+
+    public GuestCartSweeper(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.purgedCarts = Counter.builder("cart.sweeper.purged")
+                .description("Silinen terk edilmiş misafir sepetleri")
+                .register(meterRegistry);
+        this.purgedItems = Counter.builder("cart.sweeper.items.purged")
+                .description("Silinen misafir sepetlerinin kalemleri")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("cart.sweeper.chunk")
+                .description("Parça başına silme süresi")
+                .register(meterRegistry);
+        Gauge.builder("cart.sweeper.last-pass.rate", this, s -> s.lastPassRate)
+                .description("Son geçişte saniyede silinen sepet")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.sweeper.chunk-delay-ms:500}")
+    public void sweepChunk() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        if (cutoff == null) {
+            if (now < nextPassAt) return;
+            cutoff = new Timestamp(now - ttlMs);
+            cursor = 0;
+            passStartedAt = now;
+            passCarts = 0;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM cart WHERE id > ? AND user_id IS NULL AND updated_at < ? ORDER BY id LIMIT ?",
+                Long.class, cursor, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            finishPass(now);
+            return;
+        }
+        cursor = ids.get(ids.size() - 1);
+        long[] deleted = chunkTimer.record(() -> delete(ids));
+        purgedCarts.increment(deleted[0]);
+        purgedItems.increment(deleted[1]);
+        passCarts += deleted[0];
+        if (ids.size() < chunkSize) {
+            finishPass(System.currentTimeMillis());
+        }
+    }
+
+    // Seçim ile silme arasında güncellenen (yeniden kullanılan) sepetler kilitlenip yeniden süzülür
+    private long[] delete(List<Long> ids) {
+        return transactionTemplate.execute(tx -> {
+            List<Object> args = new ArrayList<>(ids);
+            args.add(cutoff);
+            List<Long> idle = jdbcTemplate.queryForList("SELECT id FROM cart WHERE id IN (" + placeholders(ids.size())
+                    + ") AND user_id IS NULL AND updated_at < ? FOR UPDATE", Long.class, args.toArray());
+            if (idle.isEmpty()) return new long[]{0, 0};
+            String in = placeholders(idle.size());
+            int items = jdbcTemplate.update("DELETE FROM cart_item WHERE cart_id IN (" + in + ")", idle.toArray());
+            int carts = jdbcTemplate.update("DELETE FROM cart WHERE id IN (" + in + ")", idle.toArray());
+            return new long[]{carts, items};
+        });
+    }
+
+    private void finishPass(long now) {
+        long elapsed = Math.max(1, now - passStartedAt);
+        lastPassRate = passCarts * 1000.0 / elapsed;
+        if (passCarts > 0) {
+            log.info("Misafir sepeti temizliği: {} sepet, {} ms ({} sepet/sn)", passCarts, elapsed,
+                    String.format("%.1f", lastPassRate));
+        }
+        cutoff = null;
+        nextPassAt = now + passIntervalMs;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.ekommerce.service;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+// Misafir sepeti için sunucu tarafında durum tutmayan imzalı belirteç: "<guestId>.<imza>".
+// guestId 128 bit rastgele değer (cart.session_id'ye yazılır), imza HMAC-SHA256'nın ilk 16 baytı; ikisi de base64url.
+// Doğrulama yalnızca gizli anahtarla yapılır, HttpSession açılmaz; aynı anahtarı paylaşan her düğüm belirteci kabul eder.
+// Anahtar cart.guest-token.secret, yoksa HMAC(jwt.secret, "cart-token"): JWT imza anahtarının kendisi kullanılmaz.
+@Service
+public class GuestCartTokenService {
+
+    public static final String HEADER = "X-Cart-Token";
+    public static final String COOKIE = "cart_token";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int ID_BYTES = 16;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+
+    @Value("${cart.guest-token.max-age-seconds:2592000}")
+    private long maxAgeSeconds;
+
+    @Value("${cart.guest-token.secure-cookie:false}")
+    private boolean secureCookie;
+
+    // Gizli anahtar yapılandırılmamışsa uygulama açılmaz; bilinen bir varsayılanla imzalanan belirteç taklit edilebilir
+    public GuestCartTokenService(@Value("${cart.guest-token.secret:}") String secret,
+                                 @Value("${jwt.secret:}") String jwtSecret) {
+        if (!secret.isBlank()) {
+            this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        } else if (!jwtSecret.isBlank()) {
+            this.key = new SecretKeySpec(hmac(jwtSecret.getBytes(StandardCharsets.UTF_8), "cart-token"), ALGORITHM);
+        } else {
+            throw new IllegalStateException("Sepet belirteci için cart.guest-token.secret veya jwt.secret tanımlanmalı");
+        }
+    }
+
+    public String newGuestId() {
+        byte[] id = new byte[ID_BYTES];
+        random.nextBytes(id);
+        return ENCODER.encodeToString(id);
+    }
+
+    public String tokenFor(String guestId) {
+        return guestId + "." + ENCODER.encodeToString(sign(guestId));
+    }
+
+    // Geçerliyse guestId, aksi halde (biçim bozuk, imza tutmuyor) null
+    public String verify(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) return null;
+        String guestId = token.substring(0, dot);
+        byte[] id;
+        try {
+            id = DECODER.decode(guestId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (id.length != ID_BYTES) return null;
+        // Kanonik metin karşılaştırılır: son base64 karakterinin anlamsız bitleri değiştirilmiş imza da reddedilir
+        byte[] expected = ENCODER.encodeToString(sign(guestId)).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(actual, expected) ? guestId : null;
+    }
+
+    // Sırasıyla istek parametresi (eski istemciler: sessionId), X-Cart-Token başlığı ve çerez denenir
+    public String resolve(HttpServletRequest request, String param) {
+        if (param != null && !param.isBlank()) {
+            return verify(param);
+        }
+        String header = request.getHeader(HEADER);
+        if (header != null && !header.isBlank()) {
+            return verify(header);
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) return verify(cookie.getValue());
+            }
+        }
+        return null;
+    }
+
+    // Çerez her yazımda yenilenir (kayan süre); başlık çerez kullanmayan istemciler için
+    public void write(HttpServletResponse response, String guestId) {
+        String token = tokenFor(guestId);
+        response.setHeader(HEADER, token);
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(token, maxAgeSeconds).toString());
+    }
+
+    public void clear(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie("", 0).toString());
+    }
+
+    private ResponseCookie cookie(String value, long maxAge) {
+        return ResponseCookie.from(COOKIE, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/api")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    // Mac iş parçacığı güvenli değil; her çağrıda yenisi (anahtar hazır, maliyeti düşük)
+    private byte[] sign(String guestId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Arrays.copyOf(mac.doFinal(guestId.getBytes(StandardCharsets.US_ASCII)), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Sepet belirteci imzalanamadı", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] secret, String label) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac.doFinal(label.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Sepet belirteci anahtarı türetilemedi", e);
+        }
+    }
+}
@@ -6,9 +6,13 @@ import com.ekommerce.repository.OrderItemRepository;
 import com.ekommerce.repository.OrderRepository;
 import com.ekommerce.repository.ProductRepository;
 import com.ekommerce.repository.UserRepository;
+import com.ekommerce.util.Money;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,6 +27,11 @@ public class OrderService {
     @Autowired private OrderItemRepository orderItemRepository;
     @Autowired private UserRepository userRepository;
     @Autowired private ProductRepository productRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private ProductCounterService productCounterService;
+    @Autowired private ProductRankingService productRankingService;
+    @Autowired private ProductCoPurchaseIndex productCoPurchaseIndex;
+    @Autowired private ProductStockService productStockService;
 
     public OrderDto createOrder(OrderDto orderDto, Long userId) {
         User user = userRepository.findById(userId)
@@ -40,21 +49,23 @@ public class OrderService {
 
         // Tek satıcı kuralı ve toplam tutar hesaplama
         User singleSeller = null;
-        BigDecimal total = BigDecimal.ZERO;
+        Money total = Money.ZERO;
 
         List<OrderItem> preparedItems = new ArrayList<>();
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new LinkedHashMap<>();
         for (OrderItem itemDto : orderDto.getItems()) {
             Long productId = Optional.ofNullable(itemDto.getProduct())
                     .map(Product::getId)
                     .orElseThrow(() -> new RuntimeException("Ürün bilgisi eksik"));
 
+            if (itemDto.getQuantity() == null || itemDto.getQuantity() <= 0) {
+                throw new RuntimeException("Adet 1 veya daha büyük olmalıdır");
+            }
+
             Product product = productRepository.findById(productId)
                     .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
 
-            if (product.getStock() < itemDto.getQuantity()) {
-                throw new RuntimeException("Yetersiz stok: " + product.getName());
-            }
-
             User pSeller = product.getSeller();
             if (singleSeller == null) {
                 singleSeller = pSeller;
@@ -63,7 +74,7 @@ public class OrderService {
             }
 
             BigDecimal linePrice = product.getPrice();
-            total = total.add(linePrice.multiply(BigDecimal.valueOf(itemDto.getQuantity())));
+            total = total.plus(Money.of(linePrice).times(itemDto.getQuantity()));
 
             OrderItem oi = new OrderItem();
             oi.setProduct(product);
@@ -71,12 +82,22 @@ public class OrderService {
             oi.setQuantity(itemDto.getQuantity());
             oi.setPrice(linePrice);
             preparedItems.add(oi);
+            quantities.merge(productId, itemDto.getQuantity(), Integer::sum);
+            products.put(productId, product);
         }
 
+        // Stok kontrolü ve düşümü tek koşullu UPDATE ile (okunan stok değeri eşzamanlı siparişlerde bayat olabilir);
+        // yetmeyen ürün varsa hata fırlar ve transaction diğer düşümleri de geri alır
+        List<Long> insufficient = productStockService.decrement(quantities);
+        if (!insufficient.isEmpty()) {
+            throw new RuntimeException("Yetersiz stok: " + products.get(insufficient.get(0)).getName());
+        }
+        productStockService.refresh(products.values());
+
         Orders order = new Orders();
         order.setUser(user);
         order.setSeller(singleSeller);
-        order.setTotalAmount(total);
+        order.setTotalAmount(total.toBigDecimal());
         order.setStatus(OrderStatus.PENDING);
         order.setPaymentMethod(orderDto.getPaymentMethod());
         order.setShippingStatus(ShippingStatus.PREPARING);
@@ -90,12 +111,19 @@ public class OrderService {
             oi.setOrder(order);
             oi.setCreatedAt(LocalDateTime.now());
             orderItemRepository.save(oi);
-
-            // Stok güncelle
-            Product p = oi.getProduct();
-            p.setStock(p.getStock() - oi.getQuantity());
-            productRepository.save(p);
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(new ArrayList<>(products.values()), false));
+
+        LocalDateTime orderedAt = order.getCreatedAt();
+        Long orderId = order.getId();
+        afterCommit(() -> {
+            preparedItems.forEach(oi -> {
+                productCounterService.recordSale(oi.getProduct().getId(), oi.getQuantity());
+                productRankingService.record(oi.getProduct().getId(), categoryId(oi.getProduct()), oi.getQuantity(), orderedAt);
+            });
+            productCoPurchaseIndex.recordOrder(orderId,
+                    preparedItems.stream().map(oi -> oi.getProduct().getId()).toList());
+        });
 
         return convertToDto(order);
     }
@@ -122,13 +150,23 @@ public class OrderService {
         order.setUpdatedAt(LocalDateTime.now());
         orderRepository.save(order);
 
-        // Stokları iade et
+        // Stokları iade et (koşulsuz artış, tükenmiş ürün yeniden ACTIVE)
         List<OrderItem> orderItems = orderItemRepository.findByOrderId(orderId);
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Product> products = new LinkedHashMap<>();
         for (OrderItem item : orderItems) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            products.put(item.getProduct().getId(), item.getProduct());
         }
+        productStockService.increment(quantities);
+        productStockService.refresh(products.values());
+        eventPublisher.publishEvent(new ProductChangedEvent(new ArrayList<>(products.values()), false));
+
+        LocalDateTime orderedAt = order.getCreatedAt();
+        afterCommit(() -> orderItems.forEach(item -> {
+            productCounterService.recordSale(item.getProduct().getId(), -item.getQuantity());
+            productRankingService.record(item.getProduct().getId(), categoryId(item.getProduct()), -item.getQuantity(), orderedAt);
+        }));
     }
 
     public void updateOrderStatus(Long orderId, OrderStatus status, Long sellerId) {
@@ -194,6 +232,24 @@ public class OrderService {
         return convertToDto(order);
     }
 
+    // Bellek içi sayaçlar yalnızca commit edilen siparişleri görmeli
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Long categoryId(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
     private String generateTrackingNumber() {
         return "TRK" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
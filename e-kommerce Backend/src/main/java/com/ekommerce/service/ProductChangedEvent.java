@@ -0,0 +1,49 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.Product;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// ProductService yazma yollarından yayınlanır; bellek içi indeksler ve ürün okuma modeli (ProductReadModel) bu olayla güncellenir.
+// Toplu içe aktarma tüm ürünleri tek olayda taşır ki dinleyiciler her satır için ayrı iş yapmasın.
+public class ProductChangedEvent {
+
+    private final List<Product> products;
+    private final boolean deleted;
+    // Güncellemede kategori değiştiyse eski kategori; kategori kapsamlı önbellekler onu da düşürmeli
+    private final Long previousCategoryId;
+
+    public ProductChangedEvent(Product product, boolean deleted) {
+        this(List.of(product), deleted, null);
+    }
+
+    public ProductChangedEvent(Product product, Long previousCategoryId) {
+        this(List.of(product), false, previousCategoryId);
+    }
+
+    public ProductChangedEvent(List<Product> products, boolean deleted) {
+        this(products, deleted, null);
+    }
+
+    private ProductChangedEvent(List<Product> products, boolean deleted, Long previousCategoryId) {
+        this.products = List.copyOf(products);
+        this.deleted = deleted;
+        this.previousCategoryId = previousCategoryId;
+    }
+
+    public List<Product> getProducts() { return products; }
+    public boolean isDeleted() { return deleted; }
+    public Long getPreviousCategoryId() { return previousCategoryId; }
+
+    // Değişiklikten etkilenen tüm kategoriler (eski kategori dahil)
+    public Set<Long> getAffectedCategoryIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Product p : products) {
+            if (p.getCategory() != null && p.getCategory().getId() != null) ids.add(p.getCategory().getId());
+        }
+        if (previousCategoryId != null) ids.add(previousCategoryId);
+        return ids;
+    }
+}
@@ -0,0 +1,185 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.OrderStatus;
+import com.ekommerce.repository.OrderItemRepository;
+import com.ekommerce.repository.OrderRepository;
+import com.ekommerce.util.LongIntHashMap;
+import com.ekommerce.util.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// "Bunu alanlar şunları da aldı": aynı siparişte birlikte alınan ürün çiftlerinin seyrek eş-geçim matrisi.
+// Satır başına ilkel long->int harita; her ürünün en sık birlikte alındığı ilk N komşu önceden hesaplanır,
+// sorgu tek harita okumasıdır. Açılışta order_item bir kez akış halinde okunur, sonra her sipariş commit'inde
+// artımlı güncellenir (sayılar yalnızca artar, ilk N listesi O(N) ile düzeltilir).
+@Component
+public class ProductCoPurchaseIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCoPurchaseIndex.class);
+
+    public static final int MAX_NEIGHBORS = 20;
+    private static final long[] EMPTY = new long[0];
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Toptan siparişler öneriyi bozmasın diye ve çift sayısı karesel büyüdüğü için sınırlanır
+    @Value("${product.related.max-order-items:50}")
+    private int maxOrderItems;
+
+    // matrix ve pending bu nesnenin kilidiyle korunur; neighbors kilitsiz okunur (diziler yazımda kopyalanır)
+    private LongObjectHashMap<LongIntHashMap> matrix = new LongObjectHashMap<>(1024);
+    private final ConcurrentHashMap<Long, long[]> neighbors = new ConcurrentHashMap<>();
+    // İlk yükleme sürerken commit edilen siparişler (sipariş id -> ürünler); yükleme bitince, akışta
+    // görülmemiş olanlar uygulanır
+    private Map<Long, long[]> pending;
+
+    // pending, ilk sorgudan (max id ve akışın okuduğu görüntü) önce açılır: o andan sonra commit edilen her sipariş ya
+    // akışta ya da pending'dedir. İkisinde birden olanlar (commit'i yüklemeden önce, bildirimi sonra) akışta görülen
+    // id'lerle ayıklanır; id sırası commit sırası olmadığından yalnızca max id'ye bakmak yetmez.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            pending = new LinkedHashMap<>();
+        }
+        long started = System.currentTimeMillis();
+        LongObjectHashMap<LongIntHashMap> fresh = new LongObjectHashMap<>(1024);
+        LongIntHashMap seen = new LongIntHashMap(1024);
+        long orders = 0;
+        try (Stream<Object[]> rows = orderItemRepository.streamOrderProducts(
+                orderRepository.findMaxOrderId(), OrderStatus.CANCELLED)) {
+            Iterator<Object[]> it = rows.iterator();
+            Set<Long> basket = new LinkedHashSet<>();
+            long currentOrder = -1;
+            while (it.hasNext()) {
+                Object[] r = it.next();
+                long orderId = (Long) r[0];
+                if (orderId != currentOrder) {
+                    addPairs(fresh, basket, false);
+                    basket.clear();
+                    currentOrder = orderId;
+                    seen.addTo(orderId, 1);
+                    orders++;
+                }
+                basket.add((Long) r[1]);
+            }
+            addPairs(fresh, basket, false);
+        } catch (RuntimeException e) {
+            // Yükleme başarısızsa siparişler bekletilmez; indeks artımlı olarak dolmaya devam eder
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+
+        Map<Long, long[]> tops = new HashMap<>();
+        fresh.forEach((product, row) -> tops.put(product, topNeighbors(row)));
+        synchronized (this) {
+            matrix = fresh;
+            neighbors.clear();
+            neighbors.putAll(tops);
+            for (Map.Entry<Long, long[]> order : pending.entrySet()) {
+                if (seen.get(order.getKey()) == 0) {
+                    addPairs(matrix, toSet(order.getValue()), true);
+                }
+            }
+            pending = null;
+        }
+        log.info("Birlikte alınanlar indeksi: {} sipariş, {} ürün, {} ms", orders, tops.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    // Sipariş commit'inden sonra çağrılır
+    public synchronized void recordOrder(Long orderId, Collection<Long> productIds) {
+        if (pending != null && orderId != null) {
+            pending.put(orderId, productIds.stream().mapToLong(Long::longValue).toArray());
+            return;
+        }
+        addPairs(matrix, new LinkedHashSet<>(productIds), true);
+    }
+
+    public long[] neighbors(Long productId) {
+        return neighbors.getOrDefault(productId, EMPTY);
+    }
+
+    private void addPairs(LongObjectHashMap<LongIntHashMap> target, Set<Long> basket, boolean maintainTops) {
+        if (basket.size() < 2 || basket.size() > maxOrderItems) return;
+        for (Long a : basket) {
+            LongIntHashMap row = target.computeIfAbsent(a, k -> new LongIntHashMap(8));
+            for (Long b : basket) {
+                if (a.equals(b)) continue;
+                int count = row.addTo(b, 1);
+                if (maintainTops) promote(a, b, count, row);
+            }
+        }
+    }
+
+    // Sayı arttı: komşu listedeyse yukarı kayar, değilse sonuncuyu geçiyorsa girer
+    private void promote(long product, long neighbor, int count, LongIntHashMap row) {
+        long[] top = neighbors.getOrDefault(product, EMPTY);
+        int pos = -1;
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == neighbor) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0 && top.length == MAX_NEIGHBORS && !better(neighbor, count, top[top.length - 1], row)) return;
+        int length = pos < 0 ? Math.min(top.length + 1, MAX_NEIGHBORS) : top.length;
+        long[] updated = new long[length];
+        int from = pos < 0 ? Math.min(top.length, MAX_NEIGHBORS - 1) : pos;
+        int at = from;
+        while (at > 0 && better(neighbor, count, top[at - 1], row)) at--;
+        System.arraycopy(top, 0, updated, 0, at);
+        updated[at] = neighbor;
+        System.arraycopy(top, at, updated, at + 1, from - at);
+        if (pos >= 0) System.arraycopy(top, pos + 1, updated, pos + 1, top.length - pos - 1);
+        neighbors.put(product, updated);
+    }
+
+    private static boolean better(long a, int countA, long b, LongIntHashMap row) {
+        int countB = row.get(b);
+        return countA != countB ? countA > countB : a < b;
+    }
+
+    // N'lik min-heap ile satırın en sık komşuları, azalan sırada
+    private static long[] topNeighbors(LongIntHashMap row) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(MAX_NEIGHBORS + 1,
+                (x, y) -> x[1] != y[1] ? Long.compare(x[1], y[1]) : Long.compare(y[0], x[0]));
+        row.forEach((neighbor, count) -> {
+            heap.add(new long[]{neighbor, count});
+            if (heap.size() > MAX_NEIGHBORS) heap.poll();
+        });
+        long[] result = new long[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) result[i] = heap.poll()[0];
+        return result;
+    }
+
+    private static Set<Long> toSet(long[] ids) {
+        Set<Long> set = new LinkedHashSet<>();
+        Arrays.stream(ids).forEach(set::add);
+        return set;
+    }
+}
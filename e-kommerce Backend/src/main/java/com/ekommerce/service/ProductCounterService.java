@@ -0,0 +1,167 @@
+package com.ekommerce.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ürün görüntülenme/satış sayaçları: sıcak satırda UPDATE yerine bellekte biriktirilir, toplu yazılır
+@Service
+public class ProductCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCounterService.class);
+
+    // updated_at açıkça korunur; aksi halde ON UPDATE CURRENT_TIMESTAMP her flush'ta değiştirir
+    private static final String FLUSH_SQL =
+            "UPDATE product SET views = COALESCE(views, 0) + ?, sales = COALESCE(sales, 0) + ?, "
+                    + "updated_at = updated_at WHERE id = ?";
+    // Okuma modeli aynı artışları aynı transaction'da alır
+    private static final String FLUSH_READ_SQL =
+            "UPDATE product_read SET views = COALESCE(views, 0) + ?, sales = COALESCE(sales, 0) + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> sales = new ConcurrentHashMap<>();
+    // En eski bekleyen (henüz yazılmamış) artışın zamanı
+    private final AtomicLong oldestPendingAt = new AtomicLong(0);
+    private final AtomicLong flushedDeltas = new AtomicLong();
+
+    @Value("${product.counters.max-lag-ms:10000}")
+    private long maxLagMs;
+
+    @Value("${product.counters.max-pending:10000}")
+    private long maxPending;
+
+    @Value("${product.counters.flush-on-shutdown:true}")
+    private boolean flushOnShutdown;
+
+    public ProductCounterService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("product.counters.pending", this, s -> s.pendingDeltas())
+                .description("Veritabanına yazılmayı bekleyen sayaç artışları")
+                .register(meterRegistry);
+        Gauge.builder("product.counters.pending.products", this, s -> s.pendingProducts())
+                .description("Bekleyen artışı olan ürün sayısı")
+                .register(meterRegistry);
+        Gauge.builder("product.counters.lag.ms", this, s -> s.currentLagMs())
+                .description("En eski bekleyen artışın yaşı")
+                .register(meterRegistry);
+        Gauge.builder("product.counters.flushed", flushedDeltas, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long productId) {
+        record(views, productId, 1);
+    }
+
+    public void recordSale(Long productId, int quantity) {
+        record(sales, productId, quantity);
+    }
+
+    private void record(ConcurrentHashMap<Long, LongAdder> counters, Long productId, long delta) {
+        if (productId == null || delta == 0) return;
+        counters.computeIfAbsent(productId, k -> new LongAdder()).add(delta);
+        oldestPendingAt.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    // Her tick'te: en eski artış max-lag'i aştıysa ya da birikim max-pending'i geçtiyse yaz
+    @Scheduled(fixedDelayString = "${product.counters.flush-interval-ms:1000}")
+    public void flushIfDue() {
+        if (currentLagMs() >= maxLagMs || pendingDeltas() >= maxPending) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        oldestPendingAt.set(0);
+        Map<Long, long[]> deltas = new HashMap<>();
+        drain(views, deltas, 0);
+        drain(sales, deltas, 1);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        long total = 0;
+        for (Map.Entry<Long, long[]> e : deltas.entrySet()) {
+            long[] d = e.getValue();
+            batch.add(new Object[]{d[0], d[1], e.getKey()});
+            total += Math.abs(d[0]) + Math.abs(d[1]);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                jdbcTemplate.batchUpdate(FLUSH_READ_SQL, batch);
+            });
+            flushedDeltas.addAndGet(total);
+        } catch (RuntimeException e) {
+            // Yazılamayan artışlar kaybolmasın; bir sonraki flush'ta tekrar denenir
+            log.warn("Ürün sayaçları yazılamadı, {} ürün tekrar denenecek: {}", deltas.size(), e.getMessage());
+            for (Map.Entry<Long, long[]> d : deltas.entrySet()) {
+                views.computeIfAbsent(d.getKey(), k -> new LongAdder()).add(d.getValue()[0]);
+                sales.computeIfAbsent(d.getKey(), k -> new LongAdder()).add(d.getValue()[1]);
+            }
+            oldestPendingAt.compareAndSet(0, System.currentTimeMillis());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (flushOnShutdown) {
+            flush();
+        }
+    }
+
+    // Haritalardan hesaplanır: ürün başına net bekleyen artışın mutlak değeri. Aynı penceredeki satış ve iptali
+    // (+q, -q) birbirini götürür; ayrı bir sayaçta tutulsaydı yazılmayan net sıfır artışlar orada birikirdi
+    public long pendingDeltas() {
+        return sumAbs(views) + sumAbs(sales);
+    }
+
+    private static long sumAbs(ConcurrentHashMap<Long, LongAdder> counters) {
+        long total = 0;
+        for (LongAdder a : counters.values()) total += Math.abs(a.sum());
+        return total;
+    }
+
+    private int pendingProducts() {
+        Set<Long> ids = new HashSet<>();
+        views.forEach((id, a) -> { if (a.sum() != 0) ids.add(id); });
+        sales.forEach((id, a) -> { if (a.sum() != 0) ids.add(id); });
+        return ids.size();
+    }
+
+    private long currentLagMs() {
+        long since = oldestPendingAt.get();
+        return since == 0 ? 0 : System.currentTimeMillis() - since;
+    }
+
+    // sum() kadar düşülür (sumThenReset değil) ki eşzamanlı artışlar kaybolmasın
+    private static void drain(ConcurrentHashMap<Long, LongAdder> counters, Map<Long, long[]> into, int slot) {
+        for (Map.Entry<Long, LongAdder> e : counters.entrySet()) {
+            long value = e.getValue().sum();
+            if (value == 0) continue;
+            e.getValue().add(-value);
+            into.computeIfAbsent(e.getKey(), k -> new long[2])[slot] += value;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductDto;
+import com.ekommerce.entity.Product;
+import com.ekommerce.util.BoundedCache;
+import com.ekommerce.util.CacheMetrics;
+import com.ekommerce.util.ETags;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// GET /api/products/{id} için yakın önbellek + tek uçuş (single-flight): aynı ürün için eşzamanlı ıskalamalar
+// tek bir veritabanı yüklemesini bekler, sonuç birkaç saniye saklanır. Viral bir ürün MySQL'e sürü halinde inmez.
+@Component
+public class ProductDetailCache {
+
+    private static final String CACHE_NAME = "productDetail";
+
+    private final BoundedCache<Long, Detail> cache;
+    private final ConcurrentHashMap<Long, CompletableFuture<Detail>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    // Yükleme takılırsa bekleyenler bu süreden sonra kendi yüklemelerini yapar
+    @Value("${product.detail-cache.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    // DTO ve ETag'i aynı yüklemeden gelir; koşullu istek ve gövde hep aynı anlık görüntüye dayanır
+    public record Detail(ProductDto dto, ETags.Version version) { }
+
+    public ProductDetailCache(@Value("${product.detail-cache.max-entries:10000}") long maxEntries,
+                              @Value("${product.detail-cache.ttl-ms:2000}") long ttlMs,
+                              MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>(maxEntries, ttlMs, (int) Math.min(maxEntries, 100_000), detail -> 1);
+        CacheMetrics.register(cache, CACHE_NAME, "Önbellekteki ürün sayısı", meterRegistry);
+        FunctionCounter.builder("cache.coalesced", coalesced, LongAdder::sum)
+                .tag("cache", CACHE_NAME).description("Süren bir yüklemeyi bekleyerek karşılanan ıskalamalar")
+                .register(meterRegistry);
+    }
+
+    public Detail get(Long id, Function<Long, Detail> loader) {
+        Detail cached = cache.get(id);
+        if (cached != null) return cached;
+
+        CompletableFuture<Detail> mine = new CompletableFuture<>();
+        CompletableFuture<Detail> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            coalesced.increment();
+            Detail shared = await(running);
+            if (shared != null) return shared;
+            return loader.apply(id);
+        }
+
+        long generation = cache.generation();
+        try {
+            Detail detail = loader.apply(id);
+            cache.putIfCurrent(id, detail, generation);
+            mine.complete(detail);
+            return detail;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    // Yükleyenin hatası bekleyenlere de aynen fırlatılır; zaman aşımında null (çağıran kendisi yükler)
+    private Detail await(CompletableFuture<Detail> running) {
+        try {
+            return running.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ürün yüklemesi kesildi");
+        }
+    }
+
+    // Yazımdan önce başlamış bir yükleme sonrası gelen isteklere paylaştırılmaz (eski veri dönmesin)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> ids = event.getProducts().stream().map(Product::getId).collect(Collectors.toSet());
+        ids.forEach(inFlight::remove);
+        cache.invalidateIf(ids::contains);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductSummary;
+import com.ekommerce.repository.ProductReadRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Katalog dışa aktarımı: satırlar veritabanından akarken doğrudan yanıta yazılır, bellek kullanımı sabittir
+@Service
+public class ProductExportService {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final String CSV_HEADER = "id,name,description,price,stock,featured,views,sales,categoryId,categoryName,"
+            + "sellerId,sellerName,sellerShopName,imageUrl,createdAt,updatedAt";
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<ProductSummary> rows = productReadRepository.streamAllSummaries();
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            gen.setRootValueSeparator(null);
+            Iterator<ProductSummary> it = rows.iterator();
+            while (it.hasNext()) {
+                ProductSummary p = it.next();
+                gen.writeStartObject();
+                gen.writeNumberField("id", p.id());
+                gen.writeStringField("name", p.name());
+                gen.writeStringField("description", p.description());
+                if (p.price() != null) gen.writeNumberField("price", p.price()); else gen.writeNullField("price");
+                writeNumber(gen, "stock", p.stock() == null ? null : p.stock().longValue());
+                gen.writeBooleanField("featured", Boolean.TRUE.equals(p.featured()));
+                writeNumber(gen, "views", p.views() == null ? 0L : p.views());
+                writeNumber(gen, "sales", p.sales() == null ? 0L : p.sales());
+                writeNumber(gen, "categoryId", p.categoryId());
+                gen.writeStringField("categoryName", p.categoryName());
+                writeNumber(gen, "sellerId", p.sellerId());
+                gen.writeStringField("sellerName", p.sellerName());
+                gen.writeStringField("sellerShopName", p.sellerShopName());
+                gen.writeStringField("imageUrl", p.imageUrl());
+                gen.writeStringField("createdAt", p.createdAt() == null ? null : p.createdAt().toString());
+                gen.writeStringField("updatedAt", p.updatedAt() == null ? null : p.updatedAt().toString());
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+                if (++count % FLUSH_EVERY == 0) gen.flush();
+            }
+        }
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream out) throws IOException {
+        long count = 0;
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ProductSummary> rows = productReadRepository.streamAllSummaries()) {
+            w.write(CSV_HEADER);
+            w.write("\r\n");
+            Iterator<ProductSummary> it = rows.iterator();
+            while (it.hasNext()) {
+                ProductSummary p = it.next();
+                w.write(csv(p.id()));
+                w.write(',');
+                w.write(csv(p.name()));
+                w.write(',');
+                w.write(csv(p.description()));
+                w.write(',');
+                w.write(csv(p.price() == null ? null : p.price().toPlainString()));
+                w.write(',');
+                w.write(csv(p.stock()));
+                w.write(',');
+                w.write(Boolean.TRUE.equals(p.featured()) ? "true" : "false");
+                w.write(',');
+                w.write(csv(p.views() == null ? 0L : p.views()));
+                w.write(',');
+                w.write(csv(p.sales() == null ? 0L : p.sales()));
+                w.write(',');
+                w.write(csv(p.categoryId()));
+                w.write(',');
+                w.write(csv(p.categoryName()));
+                w.write(',');
+                w.write(csv(p.sellerId()));
+                w.write(',');
+                w.write(csv(p.sellerName()));
+                w.write(',');
+                w.write(csv(p.sellerShopName()));
+                w.write(',');
+                w.write(csv(p.imageUrl()));
+                w.write(',');
+                w.write(csv(p.createdAt()));
+                w.write(',');
+                w.write(csv(p.updatedAt()));
+                w.write("\r\n");
+                if (++count % FLUSH_EVERY == 0) w.flush();
+            }
+        }
+        w.flush();
+        return count;
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, Long value) throws IOException {
+        if (value == null) gen.writeNullField(field); else gen.writeNumberField(field, value);
+    }
+
+    // RFC 4180: virgül, tırnak veya satır sonu içeren alanlar tırnaklanır
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
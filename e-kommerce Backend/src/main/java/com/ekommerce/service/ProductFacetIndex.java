@@ -0,0 +1,232 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductFacetsDto;
+import com.ekommerce.dto.ProductFacetsDto.FacetCount;
+import com.ekommerce.dto.ProductFacetsDto.PriceBucket;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.TurkishText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Ürünlerin sütun bazlı (kategori, satıcı, fiyat, durum) bellek kopyası; tüm facet sayımları tek geçişte yapılır
+@Component
+public class ProductFacetIndex {
+
+    // Fiyat aralığı sınırları (kuruş): 0-100, 100-250, ..., 10000+ TL
+    private static final long[] PRICE_EDGES = {0, 100_00, 250_00, 500_00, 1_000_00, 2_500_00, 5_000_00, 10_000_00};
+    private static final Product.Status[] STATUSES = Product.Status.values();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int rows;
+    private long[] ids = new long[0];
+    private int[] categoryOrds = new int[0];
+    private int[] sellerOrds = new int[0];
+    private long[] prices = new long[0];
+    private byte[] statuses = new byte[0];
+    private String[] names = new String[0];
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> rowOf = new HashMap<>();
+
+    // Sözlük kodlama: kategori/satıcı id -> küçük tamsayı
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary sellers = new Dictionary();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> all = productRepository.findFacetRows();
+        lock.writeLock().lock();
+        try {
+            rows = 0;
+            ids = new long[all.size()];
+            categoryOrds = new int[all.size()];
+            sellerOrds = new int[all.size()];
+            prices = new long[all.size()];
+            statuses = new byte[all.size()];
+            names = new String[all.size()];
+            live.clear();
+            rowOf.clear();
+            for (Object[] r : all) {
+                put((Long) r[0], (Long) r[1], (Long) r[2], (BigDecimal) r[3], (Product.Status) r[4], (String) r[5]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Product p : event.getProducts()) {
+                if (event.isDeleted()) {
+                    Integer row = rowOf.remove(p.getId());
+                    if (row != null) live.clear(row);
+                } else {
+                    put(p.getId(),
+                            p.getCategory() != null ? p.getCategory().getId() : null,
+                            p.getSellerId(), p.getPrice(), p.getStatus(), p.getName());
+                }
+            }
+            if (event.isDeleted() && rows > 1024 && live.cardinality() < rows / 2) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Her facet kendi filtresini yok sayar (çoklu seçim): kategori sayıları kategori filtresi olmadan,
+    // fiyat aralıkları fiyat filtresi olmadan; satıcı ve durum sayıları tüm filtrelerle hesaplanır
+    public ProductFacetsDto facets(String name, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        String needle = (name == null || name.isBlank()) ? null : TurkishText.fold(name.trim());
+        long min = minPrice == null ? Long.MIN_VALUE : toKurus(minPrice);
+        long max = maxPrice == null ? Long.MAX_VALUE : toKurus(maxPrice);
+
+        lock.readLock().lock();
+        try {
+            int wantedCategory = categoryId == null ? -1 : categories.ordOf(categoryId);
+            long[] categoryCounts = new long[categories.size()];
+            long[] sellerCounts = new long[sellers.size()];
+            long[] statusCounts = new long[STATUSES.length];
+            long[] bucketCounts = new long[PRICE_EDGES.length];
+
+            for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+                if (needle != null && !names[i].contains(needle)) continue;
+                boolean categoryOk = categoryId == null || (wantedCategory >= 0 && categoryOrds[i] == wantedCategory);
+                boolean priceOk = prices[i] >= min && prices[i] <= max;
+
+                if (priceOk && categoryOrds[i] >= 0) categoryCounts[categoryOrds[i]]++;
+                if (categoryOk) bucketCounts[bucketOf(prices[i])]++;
+                if (categoryOk && priceOk) {
+                    if (sellerOrds[i] >= 0) sellerCounts[sellerOrds[i]]++;
+                    statusCounts[statuses[i]]++;
+                }
+            }
+
+            ProductFacetsDto dto = new ProductFacetsDto();
+            dto.setCategories(toFacetList(categoryCounts, categories));
+            dto.setSellers(toFacetList(sellerCounts, sellers));
+            List<FacetCount> statusFacets = new ArrayList<>();
+            for (int s = 0; s < STATUSES.length; s++) {
+                if (statusCounts[s] > 0) statusFacets.add(new FacetCount(STATUSES[s].name(), statusCounts[s]));
+            }
+            dto.setStatuses(statusFacets);
+            List<PriceBucket> buckets = new ArrayList<>();
+            for (int b = 0; b < PRICE_EDGES.length; b++) {
+                BigDecimal from = BigDecimal.valueOf(PRICE_EDGES[b], 2);
+                BigDecimal to = b + 1 < PRICE_EDGES.length ? BigDecimal.valueOf(PRICE_EDGES[b + 1], 2) : null;
+                buckets.add(new PriceBucket(from, to, bucketCounts[b]));
+            }
+            dto.setPriceBuckets(buckets);
+            return dto;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long id, Long categoryId, Long sellerId, BigDecimal price, Product.Status status, String name) {
+        if (id == null) return;
+        Integer row = rowOf.get(id);
+        if (row == null) {
+            if (rows == ids.length) grow();
+            row = rows++;
+            rowOf.put(id, row);
+        }
+        ids[row] = id;
+        categoryOrds[row] = categoryId == null ? -1 : categories.ordFor(categoryId);
+        sellerOrds[row] = sellerId == null ? -1 : sellers.ordFor(sellerId);
+        prices[row] = price == null ? 0 : toKurus(price);
+        statuses[row] = (byte) (status == null ? Product.Status.ACTIVE : status).ordinal();
+        names[row] = TurkishText.fold(name);
+        live.set(row);
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        categoryOrds = Arrays.copyOf(categoryOrds, capacity);
+        sellerOrds = Arrays.copyOf(sellerOrds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        names = Arrays.copyOf(names, capacity);
+    }
+
+    // Silinen satırların yerini doldurur
+    private void compact() {
+        int w = 0;
+        rowOf.clear();
+        for (int r = live.nextSetBit(0); r >= 0; r = live.nextSetBit(r + 1)) {
+            ids[w] = ids[r];
+            categoryOrds[w] = categoryOrds[r];
+            sellerOrds[w] = sellerOrds[r];
+            prices[w] = prices[r];
+            statuses[w] = statuses[r];
+            names[w] = names[r];
+            rowOf.put(ids[w], w);
+            w++;
+        }
+        Arrays.fill(names, w, rows, null);
+        rows = w;
+        live.clear();
+        live.set(0, w);
+    }
+
+    private static int bucketOf(long price) {
+        int b = Arrays.binarySearch(PRICE_EDGES, price);
+        if (b < 0) b = -b - 2;
+        return Math.max(0, b);
+    }
+
+    private static long toKurus(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static List<FacetCount> toFacetList(long[] counts, Dictionary dictionary) {
+        List<FacetCount> list = new ArrayList<>();
+        for (int ord = 0; ord < counts.length; ord++) {
+            if (counts[ord] > 0) list.add(new FacetCount(dictionary.idOf(ord), counts[ord]));
+        }
+        list.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return list;
+    }
+
+    private static class Dictionary {
+        private final Map<Long, Integer> ords = new HashMap<>();
+        private long[] values = new long[16];
+
+        int ordFor(long id) {
+            Integer ord = ords.get(id);
+            if (ord != null) return ord;
+            int next = ords.size();
+            if (next == values.length) values = Arrays.copyOf(values, next * 2);
+            values[next] = id;
+            ords.put(id, next);
+            return next;
+        }
+
+        int ordOf(long id) {
+            return ords.getOrDefault(id, -1);
+        }
+
+        long idOf(int ord) { return values[ord]; }
+
+        int size() { return ords.size(); }
+    }
+}
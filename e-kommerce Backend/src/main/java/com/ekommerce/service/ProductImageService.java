@@ -0,0 +1,306 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductImageDto;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Ürün resimleri: orijinal, içerik hash'i ile adlandırılıp diske yazılır (aynı dosya bir kez saklanır);
+// küçük ve orta boy varyantlar sınırlı bir arka plan havuzunda üretilir
+@Service
+public class ProductImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageService.class);
+
+    public static final String URL_PREFIX = "/images/products/";
+
+    private static final int THUMB_SIZE = 200;
+    private static final int MEDIUM_SIZE = 600;
+    private static final Set<String> EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp", ".webp");
+    // <32 hex>.<ext> ve <32 hex>_medium.jpg
+    private static final Pattern HASHED_NAME = Pattern.compile("([0-9a-f]{32})(_thumb|_medium)?\\.[a-z]+");
+
+    @Value("${product.images.dir:src/main/resources/static/images/products/}")
+    private String uploadDir;
+
+    @Value("${product.images.workers:2}")
+    private int workers;
+
+    @Value("${product.images.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Çözülmüş resim ~4 bayt/piksel; küçük ama devasa boyutlu (sıkıştırma bombası) dosyalar havuzun belleğini tüketmesin
+    @Value("${product.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private ThreadPoolExecutor pipeline;
+    // Varyantları hazır olan hash'ler ve şu anda işlenenler
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Kuyruk doluyken ertelenenler: hash -> resim URL'i; retryDeferred sonra yeniden kuyruğa alır
+    private final ConcurrentHashMap<String, String> deferred = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void start() throws IOException {
+        AtomicInteger n = new AtomicInteger();
+        // Kuyruk dolarsa iş reddedilir (AbortPolicy) ve ertelenir; çözme/küçültme hiçbir zaman yükleme isteğinde çalışmaz
+        pipeline = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "product-image-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        Path dir = Paths.get(uploadDir);
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*_medium.jpg")) {
+            for (Path f : files) {
+                Matcher m = HASHED_NAME.matcher(f.getFileName().toString());
+                if (m.matches() && Files.exists(dir.resolve(m.group(1) + "_thumb.jpg"))) ready.add(m.group(1));
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        pipeline.shutdown();
+        pipeline.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Orijinal diske yazılıp fsync edildikten sonra döner; varyantlar için ayrıca scheduleVariants çağrılmalı
+    public ProductImageDto store(MultipartFile file) throws IOException {
+        String contentType = file.getContentType();
+        if (contentType != null && !contentType.startsWith("image/")) {
+            throw new RuntimeException("Sadece resim dosyası yüklenebilir: " + file.getOriginalFilename());
+        }
+        String ext = extension(file.getOriginalFilename());
+
+        Path dir = Paths.get(uploadDir);
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                in.transferTo(out);
+                channel.force(true);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            Path target = dir.resolve(hash + ext);
+            // Aynı içerik daha önce yüklendiyse mevcut dosya kullanılır
+            if (!Files.exists(target)) {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return toDto(URL_PREFIX + hash + ext, hash);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public void scheduleVariants(List<ProductImageDto> images) {
+        for (ProductImageDto image : images) {
+            String hash = hashOf(image.getUrl());
+            if (hash != null) submit(hash, image.getUrl());
+        }
+    }
+
+    // Ertelenen işler kuyrukta yer açıldıkça yeniden gönderilir; yine dolu olursa sonraki tura kalır
+    @Scheduled(fixedDelayString = "${product.images.retry-interval-ms:5000}")
+    public void retryDeferred() {
+        for (Map.Entry<String, String> e : deferred.entrySet()) {
+            if (pipeline.getQueue().remainingCapacity() == 0) return;
+            if (deferred.remove(e.getKey(), e.getValue())) submit(e.getKey(), e.getValue());
+        }
+    }
+
+    private void submit(String hash, String imageUrl) {
+        if (ready.contains(hash) || !inFlight.add(hash)) return;
+        String fileName = imageUrl.substring(URL_PREFIX.length());
+        try {
+            pipeline.execute(() -> generateVariants(hash, Paths.get(uploadDir).resolve(fileName), imageUrl));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(hash);
+            if (!pipeline.isShutdown() && deferred.putIfAbsent(hash, imageUrl) == null) {
+                log.warn("Resim kuyruğu dolu, varyantlar ertelendi: {}", fileName);
+            }
+        }
+    }
+
+    // Varyantlar henüz hazır değilse (ya da eski UUID adlı bir resimse) null döner
+    public String thumbnailUrl(String imageUrl) {
+        String hash = hashOf(imageUrl);
+        return hash != null && ready.contains(hash) ? URL_PREFIX + hash + "_thumb.jpg" : null;
+    }
+
+    public String mediumUrl(String imageUrl) {
+        String hash = hashOf(imageUrl);
+        return hash != null && ready.contains(hash) ? URL_PREFIX + hash + "_medium.jpg" : null;
+    }
+
+    private ProductImageDto toDto(String url, String hash) {
+        ProductImageDto dto = new ProductImageDto();
+        dto.setUrl(url);
+        dto.setThumbnailUrl(URL_PREFIX + hash + "_thumb.jpg");
+        dto.setMediumUrl(URL_PREFIX + hash + "_medium.jpg");
+        dto.setVariantsReady(ready.contains(hash));
+        return dto;
+    }
+
+    private void generateVariants(String hash, Path original, String imageUrl) {
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                log.warn("Resim okunamadı, varyant üretilmedi: {}", original.getFileName());
+                return;
+            }
+            writeVariant(source, THUMB_SIZE, original.resolveSibling(hash + "_thumb.jpg"));
+            writeVariant(source, MEDIUM_SIZE, original.resolveSibling(hash + "_medium.jpg"));
+            ready.add(hash);
+
+            // Bu resmi kullanan ürünlerin önbellekteki DTO'ları yeni URL'lerle yenilensin
+            List<Product> products = productRepository.findByImageUrl(imageUrl);
+            if (!products.isEmpty()) {
+                eventPublisher.publishEvent(new ProductChangedEvent(products, false));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Resim varyantları üretilemedi ({}): {}", original.getFileName(), e.getMessage());
+        } finally {
+            inFlight.remove(hash);
+        }
+    }
+
+    // Boyutlar başlıktan okunur; piksel sınırını aşan resim çözülmeden reddedilir
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Resim çok büyük: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeVariant(BufferedImage source, int maxSize, Path target) throws IOException {
+        if (Files.exists(target)) return;
+        BufferedImage scaled = scale(source, maxSize);
+        Path tmp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            if (!ImageIO.write(scaled, "jpg", tmp.toFile())) {
+                throw new IOException("JPEG yazıcısı bulunamadı");
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Uzun kenar maxSize olacak şekilde küçültür (büyütmez). Büyük oranlarda yarıya indirerek ilerler,
+    // tek adımda bilinear küçültmenin bozukluğunu önler. Saydam alanlar beyaz zemine oturtulur (JPEG).
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(w, h));
+        int targetW = Math.max(1, (int) Math.round(w * ratio));
+        int targetH = Math.max(1, (int) Math.round(h * ratio));
+
+        BufferedImage current = source;
+        do {
+            w = Math.max(targetW, w / 2);
+            h = Math.max(targetH, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    private static String hashOf(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) return null;
+        Matcher m = HASHED_NAME.matcher(imageUrl.substring(URL_PREFIX.length()));
+        return m.matches() && m.group(2) == null ? m.group(1) : null;
+    }
+
+    private static String extension(String originalName) {
+        if (originalName == null || !originalName.contains(".")) return ".jpg";
+        String ext = originalName.substring(originalName.lastIndexOf('.')).toLowerCase(Locale.ROOT);
+        if (!EXTENSIONS.contains(ext)) {
+            throw new RuntimeException("Desteklenmeyen resim uzantısı: " + ext);
+        }
+        return ext.equals(".jpeg") ? ".jpg" : ext;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductImportReport;
+import com.ekommerce.dto.ProductImportReport.RowError;
+import com.ekommerce.entity.Category;
+import com.ekommerce.entity.Product;
+import com.ekommerce.entity.User;
+import com.ekommerce.entity.UserRole.RoleType;
+import com.ekommerce.repository.CategoryRepository;
+import com.ekommerce.repository.UserRepository;
+import com.ekommerce.util.TurkishText;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Satıcılar için toplu ürün içe aktarma (CSV / NDJSON): dosya akış halinde okunur, satırlar parçalar halinde
+// paralel doğrulanır, geçerli satırlar JDBC batch ile eklenir. Kategori ve satıcı bir kez yüklenir.
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int CHUNK_SIZE = 2000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_BYTES = 65535; // TEXT
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99"); // DECIMAL(10,2)
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product (name, description, price, stock_quantity, category_id, seller_id, image_url, "
+                    + "featured, status, views, sales, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService validators;
+
+    private record RawRow(long row, Map<String, String> fields, String json) { }
+
+    private record ImportRow(long row, String name, String description, BigDecimal price, int stock,
+                             Category category, String imageUrl, boolean featured) { }
+
+    private record Checked(long row, ImportRow value, String error) { }
+
+    private record Categories(Map<Long, Category> byId, Map<String, Category> byName) { }
+
+    @PostConstruct
+    void startValidators() {
+        AtomicInteger n = new AtomicInteger();
+        validators = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "product-import-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stopValidators() {
+        validators.shutdownNow();
+    }
+
+    public ProductImportReport importProducts(MultipartFile file, String format, Long sellerId) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Dosya boş");
+        }
+        boolean ndjson = isNdjson(format, file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return importProducts(in, ndjson, sellerId);
+        }
+    }
+
+    public ProductImportReport importProducts(InputStream in, boolean ndjson, Long sellerId) throws IOException {
+        User seller = userRepository.findById(sellerId)
+                .orElseThrow(() -> new RuntimeException("Satıcı bulunamadı"));
+        if (seller.getRoleType() != RoleType.SELLER) {
+            throw new RuntimeException("Sadece satıcılar işlem yapabilir");
+        }
+        Categories categories = loadCategories();
+
+        long started = System.currentTimeMillis();
+        ProductImportReport report = new ProductImportReport();
+        report.setErrors(new ArrayList<>());
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Iterator<RawRow> rows = ndjson ? new NdjsonRows(reader) : new CsvRows(reader);
+        List<RawRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, categories, seller, report);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, categories, seller, report);
+        }
+
+        long duration = Math.max(1, System.currentTimeMillis() - started);
+        report.setDurationMs(duration);
+        report.setRowsPerMinute(report.getTotalRows() * 60_000 / duration);
+        log.info("Satıcı {} toplu içe aktarma: {} satır, {} eklendi, {} hatalı, {} ms",
+                sellerId, report.getTotalRows(), report.getInserted(), report.getFailed(), duration);
+        return report;
+    }
+
+    private void processChunk(List<RawRow> chunk, Categories categories, User seller, ProductImportReport report) {
+        report.setTotalRows(report.getTotalRows() + chunk.size());
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        for (Checked c : validateAll(chunk, categories)) {
+            if (c.error() != null) {
+                fail(report, c.row(), c.error());
+            } else {
+                valid.add(c.value());
+            }
+        }
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            insertBatch(valid.subList(from, Math.min(valid.size(), from + batchSize)), seller, report);
+        }
+    }
+
+    // Parça eşit dilimlere bölünür; sonuçlar dosyadaki sırayla birleştirilir
+    private List<Checked> validateAll(List<RawRow> chunk, Categories categories) {
+        int slices = Math.max(1, Math.min(parallelism, chunk.size() / 100));
+        int sliceSize = (chunk.size() + slices - 1) / slices;
+        List<CompletableFuture<List<Checked>>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < chunk.size(); from += sliceSize) {
+            List<RawRow> slice = chunk.subList(from, Math.min(chunk.size(), from + sliceSize));
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> slice.stream().map(r -> validate(r, categories)).toList(), validators));
+        }
+        List<Checked> checked = new ArrayList<>(chunk.size());
+        for (CompletableFuture<List<Checked>> f : futures) {
+            checked.addAll(f.join());
+        }
+        return checked;
+    }
+
+    private Checked validate(RawRow raw, Categories categories) {
+        try {
+            Map<String, String> f = raw.fields() != null ? raw.fields() : parseJson(raw.json());
+
+            String name = text(f.get("name"));
+            if (name == null) throw new IllegalArgumentException("Ürün adı zorunlu");
+            if (name.length() > MAX_TEXT_LENGTH) throw new IllegalArgumentException("Ürün adı en fazla 255 karakter olabilir");
+
+            String priceText = text(f.get("price"));
+            if (priceText == null) throw new IllegalArgumentException("Fiyat zorunlu");
+            BigDecimal price;
+            try {
+                price = new BigDecimal(priceText.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz fiyat: " + priceText);
+            }
+            if (price.signum() <= 0 || price.compareTo(MAX_PRICE) > 0 || price.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("Geçersiz fiyat: " + priceText);
+            }
+
+            String stockText = text(f.get("stock"));
+            int stock;
+            try {
+                stock = stockText == null ? 0 : Integer.parseInt(stockText);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz stok: " + stockText);
+            }
+            if (stock < 0) throw new IllegalArgumentException("Stok negatif olamaz");
+
+            Category category = resolveCategory(text(f.get("categoryid")), text(f.get("categoryname")), categories);
+
+            String imageUrl = text(f.get("imageurl"));
+            if (imageUrl != null && imageUrl.length() > MAX_TEXT_LENGTH) {
+                throw new IllegalArgumentException("Resim adresi en fazla 255 karakter olabilir");
+            }
+
+            String description = text(f.get("description"));
+            if (description != null && description.getBytes(StandardCharsets.UTF_8).length > MAX_DESCRIPTION_BYTES) {
+                throw new IllegalArgumentException("Açıklama en fazla 65535 bayt olabilir");
+            }
+
+            String featuredText = text(f.get("featured"));
+            boolean featured = featuredText != null
+                    && (featuredText.equalsIgnoreCase("true") || featuredText.equals("1"));
+
+            return new Checked(raw.row(), new ImportRow(raw.row(), name, description, price, stock,
+                    category, imageUrl, featured), null);
+        } catch (IllegalArgumentException e) {
+            return new Checked(raw.row(), null, e.getMessage());
+        }
+    }
+
+    private Category resolveCategory(String id, String name, Categories categories) {
+        if (id != null) {
+            Category c;
+            try {
+                c = categories.byId().get(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz kategori id: " + id);
+            }
+            if (c == null) throw new IllegalArgumentException("Kategori bulunamadı: " + id);
+            return c;
+        }
+        if (name != null) {
+            Category c = categories.byName().get(TurkishText.fold(name));
+            if (c == null) throw new IllegalArgumentException("Kategori bulunamadı: " + name);
+            return c;
+        }
+        throw new IllegalArgumentException("Kategori zorunlu (categoryId veya categoryName)");
+    }
+
+    private Map<String, String> parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Geçersiz JSON satırı");
+        }
+        if (node == null || !node.isObject()) throw new IllegalArgumentException("Satır bir JSON nesnesi olmalı");
+        Map<String, String> fields = new HashMap<>();
+        node.fields().forEachRemaining(e -> {
+            if (!e.getValue().isNull()) fields.put(e.getKey().toLowerCase(Locale.ROOT), e.getValue().asText());
+        });
+        return fields;
+    }
+
+    // Tek multi-row INSERT (rewriteBatchedStatements) ile eklenir; batch düşerse hatalı satırı bulmak için tek tek denenir.
+    // Batch kendi transaction'ında: hata olursa yazılmış satırlar geri alınır, tek tek denemede ikinci kez eklenmez.
+    // Her tekrar denemesi de ayrı transaction'da (bir satırın hatası diğerlerini geri almaz).
+    // ProductChangedEvent aynı transaction içinde yayınlanır: okuma modeli satırları ürünlerle birlikte commit edilir.
+    private void insertBatch(List<ImportRow> batch, User seller, ProductImportReport report) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> inserted = new ArrayList<>(batch.size());
+        try {
+            inserted.addAll(transactionTemplate.execute(tx -> published(insertAll(batch, seller, now))));
+        } catch (DataAccessException e) {
+            for (ImportRow row : batch) {
+                try {
+                    inserted.add(transactionTemplate.execute(tx -> published(List.of(insertOne(row, seller, now))).get(0)));
+                } catch (DataAccessException ex) {
+                    fail(report, row.row(), "Kayıt eklenemedi: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        report.setInserted(report.getInserted() + inserted.size());
+    }
+
+    private List<Product> published(List<Product> products) {
+        eventPublisher.publishEvent(new ProductChangedEvent(products, false));
+        return products;
+    }
+
+    private List<Product> insertAll(List<ImportRow> batch, User seller, LocalDateTime now) {
+        List<Product> inserted = new ArrayList<>(batch.size());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, batch.get(i), seller, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            inserted.add(toProduct(batch.get(i), idOf(keyList.get(i)), seller, now));
+        }
+        return inserted;
+    }
+
+    private Product insertOne(ImportRow row, User seller, LocalDateTime now) {
+        KeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            bind(ps, row, seller, now);
+            return ps;
+        }, key);
+        return toProduct(row, idOf(key.getKeyList().get(0)), seller, now);
+    }
+
+    private static void bind(PreparedStatement ps, ImportRow row, User seller, LocalDateTime now) throws SQLException {
+        ps.setString(1, row.name());
+        ps.setString(2, row.description());
+        ps.setBigDecimal(3, row.price());
+        ps.setInt(4, row.stock());
+        ps.setLong(5, row.category().getId());
+        ps.setLong(6, seller.getId());
+        ps.setString(7, row.imageUrl());
+        ps.setBoolean(8, row.featured());
+        ps.setString(9, Product.Status.ACTIVE.name());
+        ps.setTimestamp(10, Timestamp.valueOf(now));
+        ps.setTimestamp(11, Timestamp.valueOf(now));
+    }
+
+    private static Product toProduct(ImportRow row, Long id, User seller, LocalDateTime now) {
+        Product p = new Product();
+        p.setId(id);
+        p.setName(row.name());
+        p.setDescription(row.description());
+        p.setPrice(row.price());
+        p.setStock(row.stock());
+        p.setCategory(row.category());
+        p.setSeller(seller);
+        p.setImageUrl(row.imageUrl());
+        p.setFeatured(row.featured());
+        p.setStatus(Product.Status.ACTIVE);
+        p.setCreatedAt(now);
+        p.setUpdatedAt(now);
+        return p;
+    }
+
+    private static Long idOf(Map<String, Object> key) {
+        return ((Number) key.values().iterator().next()).longValue();
+    }
+
+    private static void fail(ProductImportReport report, long row, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new RowError(row, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private Categories loadCategories() {
+        Map<Long, Category> byId = new HashMap<>();
+        Map<String, Category> byName = new HashMap<>();
+        for (Category c : categoryRepository.findAll()) {
+            byId.put(c.getId(), c);
+            if (c.getName() != null) byName.putIfAbsent(TurkishText.fold(c.getName().trim()), c);
+        }
+        return new Categories(byId, byName);
+    }
+
+    private static boolean isNdjson(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            return switch (format.toLowerCase(Locale.ROOT)) {
+                case "ndjson", "jsonl" -> true;
+                case "csv" -> false;
+                default -> throw new RuntimeException("Desteklenmeyen format: " + format);
+            };
+        }
+        String lower = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".ndjson") || lower.endsWith(".jsonl");
+    }
+
+    private static String text(String value) {
+        if (value == null) return null;
+        String s = value.trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    // Her satır bir JSON nesnesi; ayrıştırma doğrulama iş parçacıklarında yapılır
+    private static class NdjsonRows implements Iterator<RawRow> {
+        private final BufferedReader reader;
+        private String nextLine;
+        private long row;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) return false;
+                    if (!line.isBlank()) nextLine = line;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new RuntimeException("Dosya okunamadı: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public RawRow next() {
+            hasNext();
+            String line = nextLine;
+            nextLine = null;
+            return new RawRow(++row, null, line);
+        }
+    }
+
+    // RFC 4180: ilk satır başlıktır (büyük/küçük harf duyarsız); tırnaklı alanlar virgül ve satır sonu içerebilir.
+    // Dışa aktarma dosyasındaki ek sütunlar (id, views, ...) yok sayılır.
+    private static class CsvRows implements Iterator<RawRow> {
+        private final BufferedReader reader;
+        private final String[] header;
+        private List<String> nextRecord;
+        private long row;
+
+        CsvRows(BufferedReader reader) {
+            this.reader = reader;
+            List<String> h = read();
+            if (h == null) throw new RuntimeException("Dosya boş");
+            header = new String[h.size()];
+            for (int i = 0; i < h.size(); i++) {
+                String name = h.get(i).trim().toLowerCase(Locale.ROOT);
+                header[i] = i == 0 && name.startsWith("\uFEFF") ? name.substring(1) : name;
+            }
+            if (!List.of(header).contains("name")) {
+                throw new RuntimeException("CSV başlığında 'name' sütunu yok");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextRecord == null) {
+                List<String> record = read();
+                if (record == null) return false;
+                if (record.size() > 1 || !record.get(0).isBlank()) nextRecord = record;
+            }
+            return true;
+        }
+
+        @Override
+        public RawRow next() {
+            hasNext();
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < Math.min(header.length, nextRecord.size()); i++) {
+                fields.put(header[i], nextRecord.get(i));
+            }
+            nextRecord = null;
+            return new RawRow(++row, fields, null);
+        }
+
+        private List<String> read() {
+            try {
+                List<String> fields = new ArrayList<>();
+                StringBuilder sb = new StringBuilder();
+                boolean quoted = false;
+                boolean any = false;
+                int c;
+                while ((c = reader.read()) != -1) {
+                    any = true;
+                    if (quoted) {
+                        if (c == '"') {
+                            reader.mark(1);
+                            int n = reader.read();
+                            if (n == '"') {
+                                sb.append('"');
+                            } else {
+                                quoted = false;
+                                if (n != -1) reader.reset();
+                            }
+                        } else {
+                            sb.append((char) c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(sb.toString());
+                        sb.setLength(0);
+                    } else if (c == '\n') {
+                        break;
+                    } else if (c != '\r') {
+                        sb.append((char) c);
+                    }
+                }
+                if (!any) return null;
+                fields.add(sb.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new RuntimeException("Dosya okunamadı: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.ProductDto;
+import com.ekommerce.util.BoundedCache;
+import com.ekommerce.util.CacheMetrics;
+import com.ekommerce.util.ETags;
+import com.ekommerce.util.TurkishText;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// GET /api/products sonuç önbelleği: sayfa içeriği ve toplam sayı, normalize edilmiş filtre anahtarıyla saklanır.
+// Ağırlık sayfadaki satır sayısıdır. Bir ürün yazıldığında yalnızca o ürünün kategorisini (veya kategori filtresi
+// olmayan) anahtarlar düşürülür; görüntülenme/satış sayaçları için kısa TTL yeterlidir.
+// Her sayfanın ETag'i yüklenirken bir kez içerikten hesaplanır; koşullu isteklerde sayfa yeniden serileştirilmez.
+@Component
+public class ProductQueryCache {
+
+    private static final String CACHE_NAME = "productListing";
+
+    private final BoundedCache<Key, Listing> cache;
+    private final ObjectMapper objectMapper;
+
+    // etag: içerik ve toplam sayıdan; serileştirme hatasında null (koşullu yanıt verilmez)
+    public record Listing(Page<ProductDto> page, String etag) { }
+
+    // Aynı sonucu veren istekler aynı anahtara düşer: ad kırpılıp küçültülür, fiyatlar ölçeksiz karşılaştırılır
+    public record Key(String name, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                      String sortBy, String sortDir, int page, int size) {
+
+        public static Key of(String name, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                             String sortBy, String sortDir, int page, int size) {
+            String n = name == null || name.trim().isEmpty() ? null : TurkishText.fold(name.trim());
+            return new Key(n, categoryId, canonical(minPrice), canonical(maxPrice),
+                    sortBy, sortDir == null ? null : sortDir.toLowerCase(Locale.ROOT), page, size);
+        }
+
+        private static BigDecimal canonical(BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
+    }
+
+    public ProductQueryCache(@Value("${product.query-cache.max-rows:20000}") long maxRows,
+                             @Value("${product.query-cache.ttl-ms:30000}") long ttlMs,
+                             MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.cache = new BoundedCache<>(maxRows, ttlMs, (int) Math.min(maxRows / 10, 100_000),
+                listing -> listing.page().getNumberOfElements() + 1);
+
+        CacheMetrics.register(cache, CACHE_NAME, "Önbellekteki toplam satır sayısı", meterRegistry);
+    }
+
+    public Listing get(Key key, Supplier<Page<ProductDto>> loader) {
+        Listing cached = cache.get(key);
+        if (cached != null) return cached;
+        long generation = cache.generation();
+        Page<ProductDto> page = loader.get();
+        Listing listing = new Listing(page, etagOf(page));
+        cache.putIfCurrent(key, listing, generation);
+        return listing;
+    }
+
+    private String etagOf(Page<ProductDto> page) {
+        try {
+            return ETags.strong(objectMapper.writeValueAsBytes(page.getContent()),
+                    page.getTotalElements(), page.getNumber(), page.getSize());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> categories = event.getAffectedCategoryIds();
+        cache.invalidateIf(k -> k.categoryId() == null || categories.contains(k.categoryId()));
+    }
+}
@@ -0,0 +1,291 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.OrderStatus;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.OrderItemRepository;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.CountMinSketch;
+import com.ekommerce.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+// Çok satanlar ve trend ürünler: sipariş/iptal anında güncellenen bellek içi top-K yapıları, sorgular O(K).
+// - Çok satanlar (tüm zamanlar): ürün başına adet haritası + kapsam (tümü / kategori) başına sıralı ilk K.
+//   Artışlar ilk K'ya O(K) ile yerleşir; yalnızca ilk K'daki bir ürün azalınca kapsam K'lık min-heap ile yeniden hesaplanır.
+// - Trend (son pencere): zaman dilimi başına Count-Min sketch (adet tahmini) + Space-Saving (aday listesi);
+//   pencere kaydıkça eski dilim düşer. Sıralama periyodik olarak hesaplanıp anlık görüntü olarak yayınlanır.
+@Service
+public class ProductRankingService {
+
+    public static final int MAX_RESULTS = 50;
+    // Kapsam anahtarı: 0 tüm ürünler, diğerleri kategori id
+    private static final long ALL = 0L;
+    private static final long[] EMPTY = new long[0];
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Value("${product.trending.bucket-ms:300000}")
+    private long bucketMs;
+
+    @Value("${product.trending.buckets:12}")
+    private int bucketCount;
+
+    @Value("${product.trending.candidates:500}")
+    private int candidates;
+
+    @Value("${product.trending.sketch-width:2048}")
+    private int sketchWidth;
+
+    // Çok satanlar
+    private final Map<Long, Long> sales = new HashMap<>();
+    private final Map<Long, Long> categoryOf = new HashMap<>();
+    private final Map<Long, Set<Long>> categoryMembers = new HashMap<>();
+    // Yazımda dizi kopyalanıp yeniden atanır; okuyucular kilitsiz okur
+    private volatile Map<Long, long[]> bestSellers = Map.of();
+    private final Map<Long, long[]> bestSellerTops = new HashMap<>();
+
+    // Trend
+    private Bucket[] ring;
+    private volatile Map<Long, long[]> trending = Map.of();
+
+    private final class Bucket {
+        final long index;
+        final CountMinSketch sketch = new CountMinSketch(sketchWidth);
+        final SpaceSaving all = new SpaceSaving(candidates);
+        final Map<Long, SpaceSaving> byCategory = new HashMap<>();
+
+        Bucket(long index) {
+            this.index = index;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        sales.clear();
+        categoryOf.clear();
+        categoryMembers.clear();
+        bestSellerTops.clear();
+        for (Object[] r : productRepository.findSalesRows()) {
+            Long id = (Long) r[0];
+            setCategory(id, (Long) r[1]);
+            long sold = r[2] == null ? 0 : (Long) r[2];
+            if (sold > 0) sales.put(id, sold);
+        }
+        recomputeBestSellers(ALL);
+        categoryMembers.keySet().forEach(this::recomputeBestSellers);
+        publishBestSellers();
+
+        ring = new Bucket[bucketCount];
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(bucketMs * bucketCount));
+        for (Object[] r : orderItemRepository.findSaleRowsSince(since, OrderStatus.CANCELLED)) {
+            addTrending((Long) r[0], (Long) r[1], (Integer) r[2], (LocalDateTime) r[3]);
+        }
+        refreshTrending();
+    }
+
+    // Sipariş için pozitif, iptal için negatif adet; orderedAt iptalde siparişin ilk verildiği zamandır
+    public synchronized void record(Long productId, Long categoryId, int quantity, LocalDateTime orderedAt) {
+        if (productId == null || quantity == 0 || ring == null) return;
+        if (!categoryOf.containsKey(productId)) setCategory(productId, categoryId);
+        long count = Math.max(0, sales.getOrDefault(productId, 0L) + quantity);
+        if (count == 0) sales.remove(productId); else sales.put(productId, count);
+        adjustBestSellers(ALL, productId, quantity < 0);
+        Long category = categoryOf.get(productId);
+        if (category != null) adjustBestSellers(category, productId, quantity < 0);
+        publishBestSellers();
+        addTrending(productId, category, quantity, orderedAt);
+    }
+
+    public long[] bestSellers(Long categoryId) {
+        return bestSellers.getOrDefault(categoryId == null ? ALL : categoryId, EMPTY);
+    }
+
+    public long[] trending(Long categoryId) {
+        return trending.getOrDefault(categoryId == null ? ALL : categoryId, EMPTY);
+    }
+
+    // Kategori değişen ürün kapsamlar arasında taşınır; silinen ürün sıralamalardan çıkar
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        boolean changed = false;
+        for (Product p : event.getProducts()) {
+            Long id = p.getId();
+            Long previous = categoryOf.get(id);
+            if (event.isDeleted()) {
+                sales.remove(id);
+                setCategory(id, null);
+                categoryOf.remove(id);
+                if (contains(bestSellerTops.get(ALL), id)) recomputeBestSellers(ALL);
+                if (previous != null && contains(bestSellerTops.get(previous), id)) recomputeBestSellers(previous);
+                changed = true;
+                continue;
+            }
+            Long current = p.getCategory() != null ? p.getCategory().getId() : null;
+            if (categoryOf.containsKey(id) && Objects.equals(previous, current)) continue;
+            setCategory(id, current);
+            if (previous != null && contains(bestSellerTops.get(previous), id)) recomputeBestSellers(previous);
+            if (current != null && sales.containsKey(id)) adjustBestSellers(current, id, false);
+            changed = true;
+        }
+        if (changed) publishBestSellers();
+    }
+
+    private void setCategory(Long productId, Long categoryId) {
+        Long previous = categoryOf.put(productId, categoryId);
+        if (previous != null && !previous.equals(categoryId)) {
+            Set<Long> members = categoryMembers.get(previous);
+            if (members != null) members.remove(productId);
+        }
+        if (categoryId != null) categoryMembers.computeIfAbsent(categoryId, k -> new HashSet<>()).add(productId);
+    }
+
+    // --- Çok satanlar
+
+    private void adjustBestSellers(long scope, long productId, boolean decreased) {
+        long[] top = bestSellerTops.getOrDefault(scope, EMPTY);
+        int pos = indexOf(top, productId);
+        long count = sales.getOrDefault(productId, 0L);
+        if (pos >= 0) {
+            // Dolu bir listede azalan ürünün yerini dışarıdaki biri alabilir: tam yeniden hesap
+            if (decreased && top.length == MAX_RESULTS) {
+                recomputeBestSellers(scope);
+                return;
+            }
+            long[] without = new long[top.length - 1];
+            System.arraycopy(top, 0, without, 0, pos);
+            System.arraycopy(top, pos + 1, without, pos, top.length - pos - 1);
+            top = without;
+        }
+        // Liste K'dan kısaysa kapsamın satışı olan tüm ürünlerini içerir; yoksa yalnızca sonuncuyu geçen girer
+        if (count > 0 && (top.length < MAX_RESULTS || better(productId, top[top.length - 1], sales::get))) {
+            int at = 0;
+            while (at < top.length && better(top[at], productId, sales::get)) at++;
+            long[] with = new long[Math.min(top.length + 1, MAX_RESULTS)];
+            System.arraycopy(top, 0, with, 0, at);
+            with[at] = productId;
+            System.arraycopy(top, at, with, at + 1, with.length - at - 1);
+            top = with;
+        }
+        bestSellerTops.put(scope, top);
+    }
+
+    private void recomputeBestSellers(long scope) {
+        Iterable<Long> members = scope == ALL ? sales.keySet() : categoryMembers.getOrDefault(scope, Set.of());
+        bestSellerTops.put(scope, topK(members, sales::get));
+    }
+
+    private void publishBestSellers() {
+        bestSellers = Map.copyOf(bestSellerTops);
+    }
+
+    // --- Trend
+
+    private void addTrending(Long productId, Long categoryId, int quantity, LocalDateTime at) {
+        if (at == null) return;
+        long index = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / bucketMs;
+        long current = System.currentTimeMillis() / bucketMs;
+        if (index <= current - bucketCount || index > current) return;
+        int slot = (int) Math.floorMod(index, (long) bucketCount);
+        Bucket b = ring[slot];
+        if (b == null || b.index < index) {
+            if (quantity < 0) return;
+            b = new Bucket(index);
+            ring[slot] = b;
+        } else if (b.index != index) {
+            return;
+        }
+        b.sketch.add(productId, quantity);
+        b.all.add(productId, quantity);
+        if (categoryId != null) {
+            b.byCategory.computeIfAbsent(categoryId, k -> new SpaceSaving(Math.max(16, candidates / 10)))
+                    .add(productId, quantity);
+        }
+    }
+
+    // Pencere içindeki dilimlerin adayları birleşir; skor dilimlerdeki Count-Min tahminlerinin toplamıdır
+    @Scheduled(fixedDelayString = "${product.trending.refresh-ms:10000}")
+    public synchronized void refreshTrending() {
+        if (ring == null) return;
+        long current = System.currentTimeMillis() / bucketMs;
+        Bucket[] live = Arrays.stream(ring)
+                .filter(b -> b != null && b.index > current - bucketCount)
+                .toArray(Bucket[]::new);
+
+        Map<Long, Set<Long>> scopes = new HashMap<>();
+        for (Bucket b : live) {
+            scopes.computeIfAbsent(ALL, k -> new HashSet<>()).addAll(b.all.keys());
+            b.byCategory.forEach((category, summary) ->
+                    scopes.computeIfAbsent(category, k -> new HashSet<>()).addAll(summary.keys()));
+        }
+        Map<Long, Long> scores = new HashMap<>();
+        Function<Long, Long> score = id -> scores.computeIfAbsent(id, k -> {
+            long sum = 0;
+            for (Bucket b : live) sum += b.sketch.estimate(k);
+            return sum;
+        });
+        Map<Long, long[]> fresh = new HashMap<>();
+        scopes.forEach((scope, ids) -> fresh.put(scope, topK(ids, score)));
+        trending = Map.copyOf(fresh);
+    }
+
+    // --- Ortak
+
+    // K'lık min-heap: kökte listenin en zayıfı; sonuç azalan sırada (eşitlikte küçük id önce)
+    private static long[] topK(Iterable<Long> ids, Function<Long, Long> count) {
+        PriorityQueue<Long> heap = new PriorityQueue<>(MAX_RESULTS + 1,
+                (a, b) -> better(a, b, count) ? 1 : better(b, a, count) ? -1 : 0);
+        for (Long id : ids) {
+            Long c = count.apply(id);
+            if (c == null || c <= 0) continue;
+            if (heap.size() < MAX_RESULTS) {
+                heap.add(id);
+            } else if (better(id, heap.peek(), count)) {
+                heap.poll();
+                heap.add(id);
+            }
+        }
+        long[] result = new long[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) result[i] = heap.poll();
+        return result;
+    }
+
+    private static boolean better(long a, long b, Function<Long, Long> count) {
+        Long ca = count.apply(a);
+        Long cb = count.apply(b);
+        long x = ca == null ? 0 : ca;
+        long y = cb == null ? 0 : cb;
+        return x != y ? x > y : a < b;
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        return ids != null && indexOf(ids, id) >= 0;
+    }
+}
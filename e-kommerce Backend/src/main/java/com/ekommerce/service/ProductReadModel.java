@@ -0,0 +1,143 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.Category;
+import com.ekommerce.entity.Product;
+import com.ekommerce.entity.User;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.TurkishText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// product_read tablosunun tek yazarı. Ürün yazımları ProductChangedEvent ile senkron (commit öncesi, aynı transaction'da),
+// kategori adı ve satıcı profili değişiklikleri CategoryService/UserService'ten doğrudan uygulanır.
+// Tablo boşsa (ilk kurulum) açılışta product tablosundan doldurulur. Tam yeniden kurulum (DELETE + INSERT ... SELECT)
+// canlı tabloyu transaction boyunca kilitler; yalnızca product.read-model.rebuild-on-startup=true ile, bakım için.
+@Service
+public class ProductReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductReadModel.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO product_read (id, name, name_folded, description, price, stock, image_url, featured, status, "
+                    + "views, sales, version, created_at, updated_at, category_id, category_name, seller_id, seller_name, "
+                    + "seller_shop_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE name = VALUES(name), name_folded = VALUES(name_folded), "
+                    + "description = VALUES(description), "
+                    + "price = VALUES(price), stock = VALUES(stock), image_url = VALUES(image_url), "
+                    + "featured = VALUES(featured), status = VALUES(status), views = VALUES(views), "
+                    + "sales = VALUES(sales), version = VALUES(version), created_at = VALUES(created_at), "
+                    + "updated_at = VALUES(updated_at), category_id = VALUES(category_id), "
+                    + "category_name = VALUES(category_name), seller_id = VALUES(seller_id), "
+                    + "seller_name = VALUES(seller_name), seller_shop_name = VALUES(seller_shop_name)";
+
+    // sellerName(User) ile aynı kural: "Ad Soyad", eksik parça atlanır
+    private static final String REBUILD_SQL =
+            "INSERT INTO product_read (id, name, description, price, stock, image_url, featured, status, views, sales, "
+                    + "version, created_at, updated_at, category_id, category_name, seller_id, seller_name, seller_shop_name) "
+                    + "SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.image_url, p.featured, p.status, "
+                    + "COALESCE(p.views, 0), COALESCE(p.sales, 0), p.version, p.created_at, p.updated_at, "
+                    + "c.id, c.name, u.id, "
+                    + "CASE WHEN u.id IS NULL THEN NULL "
+                    + "ELSE TRIM(CONCAT(COALESCE(u.first_name, ''), COALESCE(CONCAT(' ', u.last_name), ''))) END, "
+                    + "u.shop_name "
+                    + "FROM product p LEFT JOIN category c ON c.id = p.category_id LEFT JOIN users u ON u.id = p.seller_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${product.read-model.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        boolean empty = jdbcTemplate.queryForList("SELECT id FROM product_read LIMIT 1", Long.class).isEmpty();
+        if (empty || rebuildOnStartup) {
+            long started = System.currentTimeMillis();
+            if (!empty) jdbcTemplate.update("DELETE FROM product_read");
+            int rows = jdbcTemplate.update(REBUILD_SQL);
+            log.info("Ürün okuma modeli {}: {} ürün, {} ms", empty ? "dolduruldu" : "yeniden kuruldu",
+                    rows, System.currentTimeMillis() - started);
+        }
+        fillFoldedNames();
+    }
+
+    // name_folded SQL'de hesaplanamaz (TurkishText.fold); INSERT ... SELECT'in ve sütun eklenmeden önceki satırların
+    // boş bıraktığı değerler burada, parça parça doldurulur
+    private void fillFoldedNames() {
+        int filled = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT id, name FROM product_read WHERE name_folded IS NULL LIMIT 1000",
+                    (rs, i) -> new Object[]{TurkishText.fold(rs.getString(2)), rs.getLong(1)});
+            if (batch.isEmpty()) break;
+            jdbcTemplate.batchUpdate("UPDATE product_read SET name_folded = ? WHERE id = ?", batch);
+            filled += batch.size();
+        }
+        if (filled > 0) log.info("Ürün okuma modelinde {} katlanmış ad dolduruldu", filled);
+    }
+
+    // @TransactionalEventListener değil: yazan transaction içinde çalışır ki ürün ve okuma satırı birlikte commit edilsin
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        List<Product> products = event.getProducts();
+        if (event.isDeleted()) {
+            jdbcTemplate.batchUpdate("DELETE FROM product_read WHERE id = ?",
+                    products.stream().map(p -> new Object[]{p.getId()}).toList());
+            return;
+        }
+        // @PreUpdate (updatedAt, version) flush'ta çalışır; satır güncel değerlerle yazılsın
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            productRepository.flush();
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, products.stream().map(ProductReadModel::toRow).toList());
+    }
+
+    // Çağıran transaction'ında; kategoriye bağlı tüm okuma satırlarının adı güncellenir
+    public void categoryRenamed(Category category) {
+        jdbcTemplate.update("UPDATE product_read SET category_name = ? WHERE category_id = ?",
+                category.getName(), category.getId());
+    }
+
+    // Çağıran transaction'ında; satıcının ürünlerindeki görünen ad ve mağaza adı güncellenir
+    public void sellerChanged(User seller) {
+        jdbcTemplate.update("UPDATE product_read SET seller_name = ?, seller_shop_name = ? WHERE seller_id = ?",
+                sellerName(seller), seller.getShopName(), seller.getId());
+    }
+
+    public static String sellerName(User seller) {
+        if (seller == null) return null;
+        String fullName = (seller.getFirstName() != null ? seller.getFirstName() : "")
+                + (seller.getLastName() != null ? (" " + seller.getLastName()) : "");
+        return fullName.trim();
+    }
+
+    private static Object[] toRow(Product p) {
+        Category category = p.getCategory();
+        User seller = p.getSeller();
+        return new Object[]{
+                p.getId(), p.getName(), TurkishText.fold(p.getName()), p.getDescription(), p.getPrice(), p.getStock(), p.getImageUrl(),
+                Boolean.TRUE.equals(p.getFeatured()), p.getStatus() == null ? null : p.getStatus().name(),
+                p.getViews() == null ? 0L : p.getViews(), p.getSales() == null ? 0L : p.getSales(),
+                p.getVersion() == null ? 0L : p.getVersion(),
+                p.getCreatedAt() == null ? null : Timestamp.valueOf(p.getCreatedAt()),
+                p.getUpdatedAt() == null ? null : Timestamp.valueOf(p.getUpdatedAt()),
+                category != null ? category.getId() : null, category != null ? category.getName() : null,
+                seller != null ? seller.getId() : null, sellerName(seller), seller != null ? seller.getShopName() : null
+        };
+    }
+}
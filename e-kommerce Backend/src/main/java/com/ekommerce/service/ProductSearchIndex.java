@@ -0,0 +1,200 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.TurkishText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Ürün adı ve açıklaması üzerinde bellek içi ters indeks (BM25 sıralama)
+@Component
+public class ProductSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Ad alanındaki eşleşmeler açıklamaya göre daha değerli
+    private static final int NAME_BOOST = 3;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // terim -> ürün id'leri; sıralı tutulur ki son kelime önek olarak genişletilebilsin
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    private static class Doc {
+        final Map<String, Integer> termFreqs = new HashMap<>();
+        final LocalDateTime createdAt;
+        int length;
+
+        Doc(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docs.clear();
+            totalLength = 0;
+            for (Product p : products) {
+                addDoc(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Product p : event.getProducts()) {
+                removeDoc(p.getId());
+                if (!event.isDeleted()) addDoc(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(product.getId());
+            addDoc(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Skora göre sıralı ürün id'leri. Boş sorgu tüm ürünleri en yeniden eskiye döndürür.
+    public List<Long> search(String query) {
+        List<String> tokens = TurkishText.tokenize(query);
+        lock.readLock().lock();
+        try {
+            if (tokens.isEmpty()) {
+                List<Long> all = new ArrayList<>(docs.keySet());
+                all.sort(newestFirst());
+                return all;
+            }
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                // Yazarken arama: son kelime önek olarak eşleşir
+                Map<String, Set<Long>> terms = i == tokens.size() - 1
+                        ? postings.subMap(tokens.get(i), true, tokens.get(i) + Character.MAX_VALUE, false)
+                        : singleTerm(tokens.get(i));
+
+                Map<Long, Double> tokenScores = new HashMap<>();
+                for (Map.Entry<String, Set<Long>> e : terms.entrySet()) {
+                    double idf = idf(e.getValue().size());
+                    for (Long id : e.getValue()) {
+                        if (scores != null && !scores.containsKey(id)) continue;
+                        tokenScores.merge(id, bm25(docs.get(id), e.getKey(), idf), Double::sum);
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Long, Double> e : tokenScores.entrySet()) {
+                        e.setValue(e.getValue() + scores.get(e.getKey()));
+                    }
+                }
+                // Tüm kelimeler eşleşmeli (AND)
+                scores = tokenScores;
+                if (scores.isEmpty()) return List.of();
+            }
+
+            Map<Long, Double> finalScores = scores;
+            List<Long> ids = new ArrayList<>(finalScores.keySet());
+            ids.sort(Comparator.<Long>comparingDouble(finalScores::get).reversed().thenComparing(newestFirst()));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Set<Long>> singleTerm(String term) {
+        Set<Long> ids = postings.get(term);
+        return ids == null ? Map.of() : Map.of(term, ids);
+    }
+
+    private double idf(int docFreq) {
+        int n = docs.size();
+        return Math.log(1 + (n - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private double bm25(Doc doc, String term, double idf) {
+        int tf = doc.termFreqs.getOrDefault(term, 0);
+        double avgLength = docs.isEmpty() ? 1 : Math.max(1.0, (double) totalLength / docs.size());
+        return idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * doc.length / avgLength));
+    }
+
+    private Comparator<Long> newestFirst() {
+        return (a, b) -> {
+            LocalDateTime ca = docs.get(a).createdAt;
+            LocalDateTime cb = docs.get(b).createdAt;
+            if (ca != null && cb != null && !ca.equals(cb)) return cb.compareTo(ca);
+            return Long.compare(b, a);
+        };
+    }
+
+    private void addDoc(Product p) {
+        if (p.getId() == null) return;
+        Doc doc = new Doc(p.getCreatedAt());
+        for (String t : TurkishText.tokenize(p.getName())) {
+            doc.termFreqs.merge(t, NAME_BOOST, Integer::sum);
+            doc.length += NAME_BOOST;
+        }
+        for (String t : TurkishText.tokenize(p.getDescription())) {
+            doc.termFreqs.merge(t, 1, Integer::sum);
+            doc.length++;
+        }
+        for (String t : doc.termFreqs.keySet()) {
+            postings.computeIfAbsent(t, k -> new HashSet<>()).add(p.getId());
+        }
+        docs.put(p.getId(), doc);
+        totalLength += doc.length;
+    }
+
+    private void removeDoc(Long id) {
+        Doc old = docs.remove(id);
+        if (old == null) return;
+        totalLength -= old.length;
+        for (String t : old.termFreqs.keySet()) {
+            Set<Long> ids = postings.get(t);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(t);
+            }
+        }
+    }
+}
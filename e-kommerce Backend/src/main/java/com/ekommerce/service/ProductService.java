@@ -1,59 +1,140 @@
 package com.ekommerce.service;
 
+import com.ekommerce.dto.CursorPageDto;
 import com.ekommerce.dto.ProductDto;
+import com.ekommerce.dto.ProductImageDto;
+import com.ekommerce.dto.ProductSummary;
 import com.ekommerce.entity.Category;
 import com.ekommerce.entity.Product;
+import com.ekommerce.entity.ProductRead;
 import com.ekommerce.entity.User;
 import com.ekommerce.entity.UserRole.RoleType;
 import com.ekommerce.repository.CategoryRepository;
+import com.ekommerce.repository.ProductReadRepository;
 import com.ekommerce.repository.ProductRepository;
 import com.ekommerce.repository.UserRepository;
+import com.ekommerce.util.ETags;
+import com.ekommerce.util.ProductCursor;
+import com.ekommerce.util.TurkishText;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
     public List<ProductDto> getFeaturedProducts() {
-        List<Product> products = productRepository.findTop12ByFeaturedTrueOrderByCreatedAtDesc();
-        if (products == null || products.isEmpty()) {
-            products = productRepository.findTop12ByOrderByCreatedAtDesc();
+        return featuredProductsCache.getItems(this::loadFeaturedProducts);
+    }
+
+    // Hazır serileştirilmiş yanıt; okuma veritabanına gitmez
+    public byte[] getFeaturedProductsJson() {
+        return featuredProductsCache.getJson(this::loadFeaturedProducts);
+    }
+
+    private List<ProductDto> loadFeaturedProducts() {
+        Sort newest = Sort.by(Sort.Direction.DESC, "createdAt");
+        Specification<ProductRead> featured = (root, query, cb) -> cb.isTrue(root.get("featured"));
+        List<ProductSummary> products = productReadRepository.findSummaries(featured, newest, 0, 12);
+        if (products.isEmpty()) {
+            products = productReadRepository.findSummaries(null, newest, 0, 12);
+        }
+        return products.stream().map(this::toDto).toList();
+    }
+
+    // Sipariş stok güncellemeleri de bu olayı yayınlar; commit sonrasında yenilenir
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (featuredProductsCache.isAffectedBy(event)) {
+            featuredProductsCache.refresh(this::loadFeaturedProducts);
         }
-        return products.stream().map(this::convertToDto).toList();
     }
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    private final String uploadDir = "src/main/resources/static/images/products/";
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private FeaturedProductsCache featuredProductsCache;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private CategoryProductsCache categoryProductsCache;
+
+    @Autowired
+    private ProductQueryCache productQueryCache;
+
+    @Autowired
+    private ProductDetailCache productDetailCache;
+
+    @Autowired
+    private ProductRankingService productRankingService;
+
+    @Autowired
+    private ProductCoPurchaseIndex productCoPurchaseIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
 
-    public Page<Product> getFilteredProducts(String name, Long categoryId,
+    // Listeleme: product_read üzerinde JOIN'siz projeksiyon sorgusu; COUNT yalnızca gerektiğinde çalışır.
+    // Sonuçlar normalize edilmiş filtre anahtarıyla kısa süre önbelleklenir.
+    public Page<ProductDto> getFilteredProducts(String name, Long categoryId,
+            BigDecimal minPrice, BigDecimal maxPrice,
+            String sortBy, String sortDir,
+            int page, int size) {
+
+        return getFilteredListing(name, categoryId, minPrice, maxPrice, sortBy, sortDir, page, size).page();
+    }
+
+    // Sayfa ve içeriğinden hesaplanmış ETag'i (koşullu GET için)
+    public ProductQueryCache.Listing getFilteredListing(String name, Long categoryId,
+            BigDecimal minPrice, BigDecimal maxPrice,
+            String sortBy, String sortDir,
+            int page, int size) {
+
+        ProductQueryCache.Key key = ProductQueryCache.Key.of(name, categoryId, minPrice, maxPrice, sortBy, sortDir, page, size);
+        return productQueryCache.get(key, () -> loadFilteredProducts(name, categoryId, minPrice, maxPrice, sortBy, sortDir, page, size));
+    }
+
+    private Page<ProductDto> loadFilteredProducts(String name, Long categoryId,
             BigDecimal minPrice, BigDecimal maxPrice,
             String sortBy, String sortDir,
             int page, int size) {
@@ -61,14 +142,142 @@ public class ProductService {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Specification<Product> spec = (root, query, cb) -> {
+        Specification<ProductRead> spec = filterSpec(name, categoryId, minPrice, maxPrice);
+        List<ProductDto> content = productReadRepository.findSummaries(spec, sort, pageable.getOffset(), size)
+                .stream().map(this::toDto).toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> productReadRepository.count(spec));
+    }
+
+    // Keyset (seek) sayfalama: OFFSET ve COUNT(*) yok, (sortKey, id) sonrasından devam eder
+    public CursorPageDto<ProductDto> getProductsByCursor(String name, Long categoryId,
+            BigDecimal minPrice, BigDecimal maxPrice,
+            String sortBy, String sortDir,
+            String cursor, int size) {
+
+        ProductCursor.checkSortKey(sortBy);
+        boolean desc = Sort.Direction.fromString(sortDir).isDescending();
+        ProductCursor after = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor, sortBy, desc);
+
+        Specification<ProductRead> spec = filterSpec(name, categoryId, minPrice, maxPrice);
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> seekPredicate(cb, root.get(sortBy), root.get("id"), after));
+        }
+
+        Sort.Direction direction = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        // Bir fazla satır çekilir; varsa sonraki sayfa vardır
+        List<ProductSummary> rows = productReadRepository.findSummaries(spec, sort, 0, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductSummary> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? ProductCursor.encode(pageRows.get(pageRows.size() - 1), sortBy, desc) : null;
+        return new CursorPageDto<>(pageRows.stream().map(this::toDto).toList(), next, size);
+    }
+
+    // Kategori sayfası: önbellekteki ilk pencereden (varsayılan 1000 ürün) sunulur. Pencerenin ötesine geçen
+    // cursor'lar aynı sıralamayla (createdAt desc, id desc) veritabanından keyset ile devam eder.
+    // Gövde ve ETag aynı önbellek kaydından üretilir; arada kayıt yenilense de birbirini tutar.
+    public CategoryProductsCache.Listing<CursorPageDto<ProductDto>> getCategoryProducts(Long categoryId, String cursor, int size) {
+        ProductCursor after = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor, "createdAt", true);
+        CategoryProductsCache.Entry entry = categoryProductsCache.get(categoryId, limit -> loadCategory(categoryId, limit));
+        List<ProductSummary> rows = entry.rows();
+
+        int from = after == null ? 0 : firstAfter(rows, after);
+        int to = Math.min(rows.size(), from + size);
+        if (!entry.complete() && from + size >= rows.size()) {
+            return new CategoryProductsCache.Listing<>(
+                    getProductsByCursor(null, categoryId, null, null, "createdAt", "desc", cursor, size), null);
+        }
+        List<ProductSummary> pageRows = rows.subList(from, to);
+        String next = to < rows.size() ? ProductCursor.encode(pageRows.get(pageRows.size() - 1), "createdAt", true) : null;
+        return new CategoryProductsCache.Listing<>(new CursorPageDto<>(pageRows.stream().map(this::toDto).toList(), next, size),
+                ETags.strong(entry.etag(), cursor, size));
+    }
+
+    // Çok satanlar / trend / birlikte alınanlar: sıralama bellekten (O(K)), ürünler tek IN sorgusuyla; pasif ürünler ve
+    // kategorisi sonradan değişmiş olanlar (trend dilimleri eski kategoriyi tutar) atlanır
+    public List<ProductDto> getBestSellers(Long categoryId, int limit) {
+        return productsInRankOrder(productRankingService.bestSellers(categoryId), categoryId, limit);
+    }
+
+    public List<ProductDto> getTrending(Long categoryId, int limit) {
+        return productsInRankOrder(productRankingService.trending(categoryId), categoryId, limit);
+    }
+
+    // Bunu alanlar şunları da aldı: önceden hesaplanmış komşu listesinden
+    public List<ProductDto> getRelatedProducts(Long productId, int limit) {
+        return productsInRankOrder(productCoPurchaseIndex.neighbors(productId), null, limit);
+    }
+
+    private List<ProductDto> productsInRankOrder(long[] ranked, Long categoryId, int limit) {
+        // Süzülenlerin yerine geçebilecek kadar fazlası okunur
+        int n = Math.min(ranked.length, limit + 10);
+        if (n == 0) return List.of();
+        List<Long> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(ranked[i]);
+        Specification<ProductRead> spec = (root, query, cb) -> cb.and(root.get("id").in(ids),
+                cb.notEqual(root.get("status"), Product.Status.INACTIVE));
+        Map<Long, ProductSummary> byId = productReadRepository.findSummaries(spec, Sort.unsorted(), 0, n).stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(s -> s != null && (categoryId == null || categoryId.equals(s.categoryId())))
+                .limit(limit)
+                .map(this::toDto)
+                .toList();
+    }
+
+    // Eski (sayfasız) kategori listesi: önbellekteki ilk pencere
+    public CategoryProductsCache.Listing<List<ProductDto>> getCategoryProductList(Long categoryId) {
+        CategoryProductsCache.Entry entry = categoryProductsCache.get(categoryId, limit -> loadCategory(categoryId, limit));
+        return new CategoryProductsCache.Listing<>(entry.rows().stream().map(this::toDto).toList(), ETags.strong(entry.etag()));
+    }
+
+    private List<ProductSummary> loadCategory(Long categoryId, int limit) {
+        Sort newest = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+        return productReadRepository.findSummaries(filterSpec(null, categoryId, null, null), newest, 0, limit);
+    }
+
+    // (createdAt desc, id desc) sıralı listede cursor'dan sonraki ilk satırın indeksi
+    private static int firstAfter(List<ProductSummary> rows, ProductCursor after) {
+        LocalDateTime value = (LocalDateTime) after.getValue();
+        int lo = 0;
+        int hi = rows.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            ProductSummary r = rows.get(mid);
+            boolean isAfter = r.createdAt() == null
+                    || r.createdAt().isBefore(value)
+                    || (r.createdAt().isEqual(value) && r.id() < after.getId());
+            if (isAfter) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, jakarta.persistence.criteria.Path key,
+            jakarta.persistence.criteria.Path<Long> id, ProductCursor after) {
+        Comparable value = after.getValue();
+        if (after.isDesc()) {
+            return cb.or(cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(id, after.getId())));
+        }
+        return cb.or(cb.greaterThan(key, value),
+                cb.and(cb.equal(key, value), cb.greaterThan(id, after.getId())));
+    }
+
+    private Specification<ProductRead> filterSpec(String name, Long categoryId,
+            BigDecimal minPrice, BigDecimal maxPrice) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (name != null && !name.trim().isEmpty()) {
-                predicates.add(cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%"));
+                // Facet sayılarıyla aynı kural: katlanmış adda düz alt dize (% ve _ joker değil)
+                String needle = TurkishText.fold(name.trim()).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                predicates.add(cb.like(root.get("nameFolded"), "%" + needle + "%", '\\'));
             }
             if (categoryId != null) {
-                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+                predicates.add(cb.equal(root.get("categoryId"), categoryId));
             }
             if (minPrice != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
@@ -79,30 +288,54 @@ public class ProductService {
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        return productRepository.findAll(spec, pageable);
     }
 
+    // Sıralama alaka skoruna göre yapılır; pageable'daki sort dikkate alınmaz
     public Page<ProductDto> searchProducts(String query, Pageable pageable) {
-        Specification<Product> spec = (root, q, cb) -> {
-            if (query == null || query.trim().isEmpty()) {
-                return cb.conjunction();
-            }
-            String like = "%" + query.toLowerCase() + "%";
-            return cb.or(
-                    cb.like(cb.lower(root.get("name")), like),
-                    cb.like(cb.lower(root.get("description")), like));
-        };
-        Page<Product> products = productRepository.findAll(spec, pageable);
-        return products.map(this::convertToDto);
+        List<Long> ids = productSearchIndex.search(query);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Specification<ProductRead> spec = (root, q, cb) -> root.get("id").in(pageIds);
+        Map<Long, ProductSummary> byId = pageIds.isEmpty() ? Map.of()
+                : productReadRepository.findSummaries(spec, Sort.unsorted(), 0, pageIds.size()).stream()
+                        .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductDto> content = pageIds.stream()
+                .map(byId::get)
+                .filter(s -> s != null)
+                .map(this::toDto)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
     }
 
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return getProductDetail(id).dto();
+    }
+
+    // Eşzamanlı ıskalamalar tek yüklemede birleşir; sonuç ETag'iyle birlikte kısa süre saklanır
+    public ProductDetailCache.Detail getProductDetail(Long id) {
+        return productDetailCache.get(id, this::loadProductDetail);
+    }
+
+    private ProductDetailCache.Detail loadProductDetail(Long id) {
+        ProductSummary product = productReadRepository.findSummaryById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
-        return convertToDto(product);
+        return new ProductDetailCache.Detail(toDto(product), versionOf(product));
     }
 
+    // Ürün detayının ETag'i: DTO'ya giren her şey (sürüm, sayaçlar, resim varyantı hazır mı, kategori ve satıcı adları).
+    // Last-Modified updatedAt'tir; toplu yazılan görüntülenme/satış sayaçları onu değiştirmez.
+    private ETags.Version versionOf(ProductSummary p) {
+        boolean variantsReady = productImageService.thumbnailUrl(p.imageUrl()) != null;
+        String etag = ETags.strong(p.id(), p.version(), p.updatedAt(), p.views(), p.sales(),
+                p.imageUrl(), variantsReady, p.categoryName(), p.sellerName(), p.sellerShopName());
+        long lastModified = p.updatedAt() == null ? -1
+                : p.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ETags.Version(etag, lastModified);
+    }
+
+    @Transactional
     public ProductDto createProduct(ProductDto productDto) {
         Category category = categoryRepository.findById(productDto.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Kategori bulunamadı"));
@@ -116,7 +349,7 @@ public class ProductService {
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
         product.setPrice(productDto.getPrice());
-        product.setStock(productDto.getStock());
+        product.applyStock(productDto.getStock() == null ? 0 : productDto.getStock());
         product.setCategory(category);
         product.setSeller(seller);
         product.setImageUrl(productDto.getImageUrl());
@@ -125,17 +358,20 @@ public class ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         product = productRepository.save(product);
+        publishChange(product, false);
         return convertToDto(product);
     }
 
+    @Transactional
     public ProductDto updateProduct(Long id, ProductDto productDto, Long sellerId) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findForUpdateById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
 
         if (!product.getSeller().getId().equals(sellerId)) {
             throw new RuntimeException("Bu ürünü düzenleme yetkiniz yok");
         }
 
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
         if (productDto.getCategoryId() != null) {
             Category category = categoryRepository.findById(productDto.getCategoryId())
                     .orElseThrow(() -> new RuntimeException("Kategori bulunamadı"));
@@ -149,16 +385,18 @@ public class ProductService {
         if (productDto.getPrice() != null)
             product.setPrice(productDto.getPrice());
         if (productDto.getStock() != null)
-            product.setStock(productDto.getStock());
+            product.applyStock(productDto.getStock());
         if (productDto.getImageUrl() != null)
             product.setImageUrl(productDto.getImageUrl());
         product.setFeatured(productDto.isFeatured());
         product.setUpdatedAt(LocalDateTime.now());
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product, previousCategoryId));
         return convertToDto(product);
     }
 
+    @Transactional
     public void deleteProduct(Long id, Long sellerId) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
@@ -168,13 +406,16 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        publishChange(product, true);
     }
 
     // Admin can update any product
+    @Transactional
     public ProductDto updateProductAsAdmin(Long id, ProductDto productDto) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findForUpdateById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
 
+        Long previousCategoryId = product.getCategory() != null ? product.getCategory().getId() : null;
         if (productDto.getCategoryId() != null) {
             Category category = categoryRepository.findById(productDto.getCategoryId())
                     .orElseThrow(() -> new RuntimeException("Kategori bulunamadı"));
@@ -188,23 +429,27 @@ public class ProductService {
         if (productDto.getName() != null) product.setName(productDto.getName());
         if (productDto.getDescription() != null) product.setDescription(productDto.getDescription());
         if (productDto.getPrice() != null) product.setPrice(productDto.getPrice());
-        if (productDto.getStock() != null) product.setStock(productDto.getStock());
+        if (productDto.getStock() != null) product.applyStock(productDto.getStock());
         if (productDto.getImageUrl() != null) product.setImageUrl(productDto.getImageUrl());
         product.setFeatured(productDto.isFeatured());
         product.setUpdatedAt(LocalDateTime.now());
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product, previousCategoryId));
         return convertToDto(product);
     }
 
+    @Transactional
     public void deleteProductAsAdmin(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
         productRepository.delete(product);
+        publishChange(product, true);
     }
 
+    @Transactional
     public void updateProductStatus(Long productId, String status, Long sellerId) {
-        Product product = productRepository.findById(productId)
+        Product product = productRepository.findForUpdateById(productId)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
 
         if (!product.getSeller().getId().equals(sellerId)) {
@@ -217,12 +462,15 @@ public class ProductService {
             product.setStatus(statusEnum);
             product.setUpdatedAt(LocalDateTime.now());
             productRepository.save(product);
+            publishChange(product, false);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Geçersiz durum: " + status);
         }
     }
 
-    public List<String> uploadProductImages(Long productId, MultipartFile[] files, Long sellerId) {
+    // Orijinaller diske yazılınca döner; küçük/orta boy varyantlar arka planda üretilir
+    @Transactional
+    public List<ProductImageDto> uploadProductImages(Long productId, MultipartFile[] files, Long sellerId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı"));
 
@@ -230,42 +478,31 @@ public class ProductService {
             throw new RuntimeException("Bu ürüne resim yükleme yetkiniz yok");
         }
 
-        List<String> imageUrls = new ArrayList<>();
-
+        List<ProductImageDto> images = new ArrayList<>();
         for (MultipartFile file : files) {
             if (!file.isEmpty()) {
                 try {
-                        // Dosya uzantısını koru, image/* tiplerini kabul et
-                        String originalName = file.getOriginalFilename();
-                        String ext = "";
-                        if (originalName != null && originalName.contains(".")) {
-                            ext = originalName.substring(originalName.lastIndexOf('.'));
-                        }
-                        String fileName = UUID.randomUUID().toString() + ext;
-                        Path filePath = Paths.get(uploadDir + fileName);
-
-                        Files.createDirectories(filePath.getParent());
-                        Files.copy(file.getInputStream(), filePath);
-
-                        String imageUrl = "/images/products/" + fileName;
-                        imageUrls.add(imageUrl);
-
+                    images.add(productImageService.store(file));
                 } catch (IOException e) {
                     throw new RuntimeException("Dosya yükleme hatası: " + e.getMessage());
                 }
             }
         }
 
-        return imageUrls;
+        // Ürünün henüz resmi yoksa ilk yüklenen resim ana resim olur
+        if (product.getImageUrl() == null && !images.isEmpty()) {
+            product.setImageUrl(images.get(0).getUrl());
+            product = productRepository.save(product);
+            publishChange(product, false);
+        }
+        // Varyant işi findByImageUrl ile ürünü arar; yeni image_url commit edilmeden başlamasın
+        afterCommit(() -> productImageService.scheduleVariants(images));
+        return images;
     }
 
    public List<Product> getProductsBySeller(Long sellerId) {
         return productRepository.findBySeller_IdOrderByCreatedAtDesc(sellerId);
     }
-    public List<ProductDto> getAllProducts() {
-        List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        return products.stream().map(this::convertToDto).collect(Collectors.toList());
-    }
 
     private void assertSeller(User seller) {
         if (seller.getRoleType() != RoleType.SELLER) {
@@ -273,20 +510,66 @@ public class ProductService {
         }
     }
 
+    @Transactional
     public ProductDto createProductForSeller(ProductDto dto, Long sellerId) {
         dto.setSellerId(sellerId);
         return createProduct(dto); // mevcut createProduct kullanılıyor
     }
 
+    @Transactional
     public void deleteBySeller(Long productId, Long sellerId) {
         Product p = productRepository.findByIdAndSeller_Id(productId, sellerId)
                 .orElseThrow(() -> new RuntimeException("Ürün bulunamadı veya yetki yok"));
         productRepository.delete(p);
+        publishChange(p, true);
     }
 
     public List<ProductDto> getMyProducts(Long sellerId) {
-        return productRepository.findAllBySeller_Id(sellerId)
-                .stream().map(this::convertToDto).toList();
+        Specification<ProductRead> mine = (root, query, cb) -> cb.equal(root.get("sellerId"), sellerId);
+        return productReadRepository.findSummaries(mine, Sort.by(Sort.Direction.DESC, "createdAt"), 0, Integer.MAX_VALUE)
+                .stream().map(this::toDto).toList();
+    }
+
+    private ProductDto toDto(ProductSummary s) {
+        ProductDto dto = new ProductDto();
+        dto.setId(s.id());
+        dto.setName(s.name());
+        dto.setDescription(s.description());
+        dto.setPrice(s.price());
+        dto.setStock(s.stock());
+        dto.setCategoryId(s.categoryId());
+        dto.setCategoryName(s.categoryName());
+        if (s.sellerId() != null) {
+            dto.setSellerId(s.sellerId());
+            dto.setSellerName(s.sellerName());
+            dto.setSellerShopName(s.sellerShopName());
+        }
+        dto.setImageUrl(s.imageUrl());
+        dto.setThumbnailUrl(productImageService.thumbnailUrl(s.imageUrl()));
+        dto.setMediumUrl(productImageService.mediumUrl(s.imageUrl()));
+        dto.setFeatured(Boolean.TRUE.equals(s.featured()));
+        dto.setViews(s.views() == null ? 0L : s.views());
+        dto.setSales(s.sales() == null ? 0L : s.sales());
+        dto.setCreatedAt(s.createdAt());
+        dto.setUpdatedAt(s.updatedAt());
+        return dto;
+    }
+
+    private void publishChange(Product product, boolean deleted) {
+        eventPublisher.publishEvent(new ProductChangedEvent(product, deleted));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private ProductDto convertToDto(Product product) {
@@ -302,12 +585,12 @@ public class ProductService {
         }
         if (product.getSeller() != null) {
             dto.setSellerId(product.getSeller().getId());
-            String fullName = (product.getSeller().getFirstName() != null ? product.getSeller().getFirstName() : "")
-                            + (product.getSeller().getLastName() != null ? (" " + product.getSeller().getLastName()) : "");
-            dto.setSellerName(fullName.trim());
+            dto.setSellerName(ProductReadModel.sellerName(product.getSeller()));
             dto.setSellerShopName(product.getSeller().getShopName());
         }
         dto.setImageUrl(product.getImageUrl());
+        dto.setThumbnailUrl(productImageService.thumbnailUrl(product.getImageUrl()));
+        dto.setMediumUrl(productImageService.mediumUrl(product.getImageUrl()));
     dto.setFeatured(Boolean.TRUE.equals(product.getFeatured()));
     // Views/Sales may be null on legacy rows
     try { dto.setViews(product.getViews() == null ? 0L : product.getViews()); } catch (Exception ignored) {}
@@ -317,12 +600,14 @@ public class ProductService {
         return dto;
     }
 
+    @Transactional
     public ProductDto createForAuthenticatedSeller(ProductDto dto, Authentication auth) {
         Long sellerId = extractUserId(auth);
         dto.setSellerId(sellerId);
         return createProduct(dto); // mevcut createProduct metodunuzu çağırır
     }
 
+    @Transactional
     public void deleteForSeller(Long productId, Authentication auth) {
         Long sellerId = extractUserId(auth);
         Product product = productRepository.findById(productId)
@@ -332,6 +617,7 @@ public class ProductService {
             throw new AccessDeniedException("Forbidden");
         }
         productRepository.delete(product);
+        publishChange(product, true);
     }
 
     private boolean hasRole(Authentication auth, String role) {
@@ -0,0 +1,72 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+
+// Stok değişiklikleri oku-değiştir-yaz yerine tek koşullu UPDATE ile: "stok yeter mi" kontrolü ve düşüm aynı ifadede,
+// satır kilidi altında yapılır; eşzamanlı siparişler aynı stoğu ikinci kez satamaz.
+// Çağıranın transaction'ında çalışır; koşulu tutmayan satır varsa çağıran hata fırlatıp tümünü geri almalıdır.
+@Service
+public class ProductStockService {
+
+    // status önce atanır: MySQL SET ifadelerini soldan sağa ve güncellenmiş değerle değerlendirir, H2/standart SQL eski değerle;
+    // bu sırayla ikisinde de eski stok görülür. Satıcının pasife aldığı (INACTIVE) ürünün durumu değişmez.
+    private static final String DECREMENT_SQL =
+            "UPDATE product SET status = CASE WHEN status = 'ACTIVE' AND stock_quantity - ? <= 0 "
+                    + "THEN 'OUT_OF_STOCK' ELSE status END, "
+                    + "stock_quantity = stock_quantity - ?, version = version + 1, updated_at = ? "
+                    + "WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE product SET status = CASE WHEN status = 'OUT_OF_STOCK' AND stock_quantity + ? > 0 "
+                    + "THEN 'ACTIVE' ELSE status END, "
+                    + "stock_quantity = stock_quantity + ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // productId -> adet; tek batch. Stoğu yetmeyen (satırı güncellenmeyen) ürün id'leri döner, boşsa hepsi düştü.
+    // Kilitler id sırasıyla alınsın diye SortedMap: aynı ürünleri içeren eşzamanlı siparişler birbirini kilitlemez (deadlock).
+    public List<Long> decrement(SortedMap<Long, Integer> quantities) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, quantity, now, id, quantity}));
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+
+        List<Long> insufficient = new ArrayList<>();
+        int i = 0;
+        for (Long id : quantities.keySet()) {
+            if (counts[i++] == 0) insufficient.add(id);
+        }
+        return insufficient;
+    }
+
+    // İptal/iade: koşulsuz artış, tükenmiş ürün yeniden satışa açılır
+    public void increment(SortedMap<Long, Integer> quantities) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> args.add(new Object[]{quantity, quantity, now, id}));
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, args);
+    }
+
+    // Yönetilen Product'lar SQL ile değişen stok/durum/sürümü görsün; ProductChangedEvent dinleyicileri
+    // (okuma modeli, önbellekler) güncel değerleri alır. Satırlar bu transaction'da kilitli, başkası değiştiremez.
+    public void refresh(Collection<Product> products) {
+        for (Product product : products) {
+            entityManager.refresh(product);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.SuggestionDto;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.TurkishText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Arama kutusu için önek tamamlama: ürün adları ve kategoriler üzerinde, satış adedine göre ağırlıklı trie.
+// Her düğüm alt ağacındaki en iyi K öneriyi önceden hesaplanmış tutar; sorgu önek uzunluğu kadar adımdır.
+// Trie değişmez bir anlık görüntüdür; ürün değişiklikleri kaynak haritaya yazılır, arka planda yeniden kurulup
+// tek referans atamasıyla değiştirilir.
+@Component
+public class ProductSuggestIndex {
+
+    public static final int MAX_RESULTS = 10;
+    // Anahtarlar bu uzunlukta kesilir; daha uzun önekler adaylar üzerinde ayrıca süzülür
+    private static final int MAX_KEY_LENGTH = 24;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Kaynak: ürün id -> ad, kategori, satış. reload yeni haritayı tek referans atamasıyla koyar
+    private volatile Map<Long, Source> sources = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Trie trie = Trie.EMPTY;
+    // Olaylar ve harita değişimi bu kilitle sıralanır (kısa tutulur; DB okuması ve trie kurulumu dışarıda)
+    private final Object changes = new Object();
+    // reload'un DB okuması sürerken gelen değişiklikler (null: kaldırıldı); yeni haritaya yeniden uygulanır
+    private Map<Long, Source> changedDuringLoad;
+
+    private record Source(String name, Long categoryId, String categoryName, long sales) { }
+
+    private record Suggestion(String text, String folded, String type, Long id, long weight) { }
+
+    // Okunan satırlar olaydan eski olabilir: okuma sırasında değişen ürünler olaydaki haliyle kalır. dirty yalnızca
+    // harita değişirken temizlenir; sonra gelen olay yeni haritaya yazılır ve bir sonraki kurulumu tetikler
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        synchronized (changes) {
+            changedDuringLoad = new HashMap<>();
+        }
+        Map<Long, Source> fresh = new ConcurrentHashMap<>();
+        try {
+            for (Object[] r : productRepository.findSuggestRows()) {
+                if (r[5] == Product.Status.INACTIVE) continue;
+                fresh.put((Long) r[0], new Source((String) r[1], (Long) r[2], (String) r[3], r[4] == null ? 0 : (Long) r[4]));
+            }
+        } catch (RuntimeException e) {
+            synchronized (changes) {
+                changedDuringLoad = null;
+            }
+            throw e;
+        }
+        synchronized (changes) {
+            changedDuringLoad.forEach((id, source) -> {
+                if (source == null) fresh.remove(id); else fresh.put(id, source);
+            });
+            changedDuringLoad = null;
+            sources = fresh;
+            dirty.set(false);
+        }
+        trie = build(fresh);
+    }
+
+    // Satış sayaçları olay yayınlamadan toplu yazıldığından ağırlıklar periyodik olarak veritabanından tazelenir
+    @Scheduled(fixedDelayString = "${product.suggest.reload-interval-ms:600000}",
+            initialDelayString = "${product.suggest.reload-interval-ms:600000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.rebuild-interval-ms:5000}")
+    public synchronized void rebuildIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            trie = build(sources);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (changes) {
+            Map<Long, Source> target = sources;
+            for (Product p : event.getProducts()) {
+                Source source = null;
+                if (event.isDeleted() || p.getStatus() == Product.Status.INACTIVE) {
+                    target.remove(p.getId());
+                } else {
+                    source = new Source(p.getName(),
+                            p.getCategory() != null ? p.getCategory().getId() : null,
+                            p.getCategory() != null ? p.getCategory().getName() : null,
+                            p.getSales() == null ? 0 : p.getSales());
+                    target.put(p.getId(), source);
+                }
+                if (changedDuringLoad != null) changedDuringLoad.put(p.getId(), source);
+            }
+            dirty.set(true);
+        }
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) return List.of();
+        Trie t = trie;
+        int[] top = t.lookup(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        List<SuggestionDto> result = new ArrayList<>(Math.min(limit, top.length));
+        for (int idx : top) {
+            Suggestion s = t.suggestions[idx];
+            if (key.length() > MAX_KEY_LENGTH && !s.folded().startsWith(key) && !s.folded().contains(" " + key)) continue;
+            result.add(new SuggestionDto(s.text(), s.type(), s.id(), s.weight()));
+            if (result.size() == limit) break;
+        }
+        return result;
+    }
+
+    // Harf/rakam kelimeleri tek boşlukla birleştirilir: "Şişe-Kapak" -> "sise kapak"
+    private static String normalize(String text) {
+        return String.join(" ", TurkishText.tokenize(text));
+    }
+
+    private static Trie build(Map<Long, Source> sources) {
+        // Aynı metinli ürünler tek öneri olur, satışları toplanır; kategori ağırlığı ürünlerinin satış toplamıdır
+        Map<String, long[]> productWeights = new HashMap<>();
+        Map<String, Object[]> products = new HashMap<>();
+        Map<Long, Object[]> categories = new HashMap<>();
+        for (Map.Entry<Long, Source> e : sources.entrySet()) {
+            Source s = e.getValue();
+            String folded = normalize(s.name());
+            if (!folded.isEmpty()) {
+                long[] w = productWeights.computeIfAbsent(folded, k -> new long[]{0, -1});
+                w[0] += s.sales();
+                // Öneri id'si: aynı adlı ürünlerin en çok satanı
+                if (w[1] < s.sales()) {
+                    w[1] = s.sales();
+                    products.put(folded, new Object[]{s.name().trim(), e.getKey()});
+                }
+            }
+            if (s.categoryId() != null && s.categoryName() != null) {
+                Object[] c = categories.computeIfAbsent(s.categoryId(), k -> new Object[]{s.categoryName().trim(), 0L});
+                c[1] = (Long) c[1] + s.sales();
+            }
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(products.size() + categories.size());
+        products.forEach((folded, v) -> suggestions.add(
+                new Suggestion((String) v[0], folded, "product", (Long) v[1], productWeights.get(folded)[0])));
+        categories.forEach((id, v) -> {
+            String folded = normalize((String) v[0]);
+            if (!folded.isEmpty()) suggestions.add(new Suggestion((String) v[0], folded, "category", id, (Long) v[1]));
+        });
+
+        // Her kelime başından itibaren bir anahtar: "bluetooth kulaklik" -> "bluetooth kulaklik", "kulaklik"
+        List<String> keys = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int i = 0; i < suggestions.size(); i++) {
+            String folded = suggestions.get(i).folded();
+            int at = 0;
+            while (true) {
+                String key = folded.substring(at);
+                keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+                owners.add(i);
+                int space = folded.indexOf(' ', at);
+                if (space < 0) break;
+                at = space + 1;
+            }
+        }
+        return Trie.build(suggestions.toArray(new Suggestion[0]), keys, owners);
+    }
+
+    // Dizi tabanlı trie: düğüm başına ilk çocuk / sonraki kardeş / etiket ve en iyi K öneri indeksi
+    private static final class Trie {
+
+        static final Trie EMPTY = new Trie(new Suggestion[0], new int[]{-1}, new int[]{-1}, new char[]{0}, new int[][]{new int[0]});
+
+        final Suggestion[] suggestions;
+        final int[] firstChild;
+        final int[] nextSibling;
+        final char[] label;
+        final int[][] top;
+
+        private Trie(Suggestion[] suggestions, int[] firstChild, int[] nextSibling, char[] label, int[][] top) {
+            this.suggestions = suggestions;
+            this.firstChild = firstChild;
+            this.nextSibling = nextSibling;
+            this.label = label;
+            this.top = top;
+        }
+
+        int[] lookup(String key) {
+            int node = 0;
+            for (int i = 0; i < key.length() && node >= 0; i++) {
+                char c = key.charAt(i);
+                int child = firstChild[node];
+                while (child >= 0 && label[child] != c) child = nextSibling[child];
+                node = child;
+            }
+            return node < 0 ? new int[0] : top[node];
+        }
+
+        static Trie build(Suggestion[] suggestions, List<String> keys, List<Integer> owners) {
+            Integer[] order = new Integer[keys.size()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+
+            int capacity = 1024;
+            int[] firstChild = new int[capacity];
+            int[] nextSibling = new int[capacity];
+            int[] lastChild = new int[capacity];
+            char[] label = new char[capacity];
+            List<List<Integer>> terminals = new ArrayList<>();
+            firstChild[0] = -1;
+            nextSibling[0] = -1;
+            lastChild[0] = -1;
+            terminals.add(null);
+            int nodes = 1;
+
+            // Sıralı girişte önceki anahtarla ortak önekten sonrası için düğüm eklenir
+            int[] path = new int[MAX_KEY_LENGTH + 1];
+            String previous = "";
+            for (Integer k : order) {
+                String key = keys.get(k);
+                int common = 0;
+                while (common < key.length() && common < previous.length()
+                        && key.charAt(common) == previous.charAt(common)) common++;
+                for (int d = common; d < key.length(); d++) {
+                    if (nodes == capacity) {
+                        capacity *= 2;
+                        firstChild = Arrays.copyOf(firstChild, capacity);
+                        nextSibling = Arrays.copyOf(nextSibling, capacity);
+                        lastChild = Arrays.copyOf(lastChild, capacity);
+                        label = Arrays.copyOf(label, capacity);
+                    }
+                    int parent = path[d];
+                    int node = nodes++;
+                    label[node] = key.charAt(d);
+                    firstChild[node] = -1;
+                    nextSibling[node] = -1;
+                    lastChild[node] = -1;
+                    terminals.add(null);
+                    if (lastChild[parent] < 0) firstChild[parent] = node; else nextSibling[lastChild[parent]] = node;
+                    lastChild[parent] = node;
+                    path[d + 1] = node;
+                }
+                int end = path[key.length()];
+                if (terminals.get(end) == null) terminals.set(end, new ArrayList<>(1));
+                terminals.get(end).add(owners.get(k));
+                previous = key;
+            }
+
+            // Çocuklar ebeveynden sonra oluşturulduğundan ters sırada gezmek alttan üste birleştirme sağlar
+            int[][] top = new int[nodes][];
+            int[] buffer = new int[MAX_RESULTS];
+            for (int node = nodes - 1; node >= 0; node--) {
+                int n = 0;
+                if (terminals.get(node) != null) {
+                    for (int idx : terminals.get(node)) n = offer(buffer, n, idx, suggestions);
+                }
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    for (int idx : top[c]) n = offer(buffer, n, idx, suggestions);
+                }
+                top[node] = Arrays.copyOf(buffer, n);
+            }
+            return new Trie(suggestions, Arrays.copyOf(firstChild, nodes), Arrays.copyOf(nextSibling, nodes),
+                    Arrays.copyOf(label, nodes), top);
+        }
+
+        // Ağırlığa göre azalan sıralı, en fazla MAX_RESULTS elemanlı tampona ekleme; yeni boyutu döner
+        private static int offer(int[] buffer, int n, int idx, Suggestion[] suggestions) {
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] == idx) return n;
+            }
+            int pos = n;
+            while (pos > 0 && better(idx, buffer[pos - 1], suggestions)) pos--;
+            if (pos == MAX_RESULTS) return n;
+            int last = Math.min(n, MAX_RESULTS - 1);
+            System.arraycopy(buffer, pos, buffer, pos + 1, last - pos);
+            buffer[pos] = idx;
+            return Math.min(n + 1, MAX_RESULTS);
+        }
+
+        private static boolean better(int a, int b, Suggestion[] suggestions) {
+            int byWeight = Long.compare(suggestions[a].weight(), suggestions[b].weight());
+            return byWeight != 0 ? byWeight > 0 : suggestions[a].folded().compareTo(suggestions[b].folded()) < 0;
+        }
+    }
+}
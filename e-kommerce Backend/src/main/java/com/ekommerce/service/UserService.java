@@ -12,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +29,9 @@ public class UserService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private ProductReadModel productReadModel;
+
     public List<User> getAdmins() {
         return userRepository.findByRoleType(RoleType.ADMIN);
     }
@@ -76,6 +80,8 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // Satıcının ad/mağaza adı değişikliği ürün okuma modeline aynı transaction'da yansır
+    @Transactional
     public User updateUser(Long id, User userDetails) {
         return userRepository.findById(id)
                 .map(user -> {
@@ -91,7 +97,9 @@ public class UserService {
                         user.setShopAddress(userDetails.getShopAddress());
                         user.setShopDescription(userDetails.getShopDescription());
                     }
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    if (saved.isSeller()) productReadModel.sellerChanged(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
@@ -171,6 +179,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    @Transactional
     public User updateUserProfile(String token, User userDetails) {
         String email = extractEmailFromToken(token);
         User user = userRepository.findByEmail(email)
@@ -190,7 +199,9 @@ public class UserService {
             user.setShopDescription(userDetails.getShopDescription());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (saved.isSeller()) productReadModel.sellerChanged(saved);
+        return saved;
     }
 
     public void changePassword(String token, String currentPassword, String newPassword) {
@@ -0,0 +1,162 @@
+package com.ekommerce.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+// Ağırlık sınırlı, TTL'li LRU önbellek. Yer açmak gerektiğinde TinyLFU kabulü uygulanır: yeni kayıt, çıkarılacak
+// en eski kayıttan daha sık istenmediyse önbelleğe alınmaz (tek seferlik sorgular sıcak kayıtları itemez).
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlMs;
+    private final ToIntFunction<V> weigher;
+    private final LinkedHashMap<K, Node<V>> map = new LinkedHashMap<>(64, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long weight;
+
+    // Yükleme sürerken bir geçersizleme olduysa sonuç yazılmaz (bkz. putIfCurrent)
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    private record Node<V>(V value, int weight, long expiresAt) { }
+
+    public BoundedCache(long maxWeight, long ttlMs, int expectedEntries, ToIntFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.ttlMs = ttlMs;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(Math.max(64, expectedEntries));
+    }
+
+    public synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        Node<V> node = map.get(key);
+        if (node == null || node.expiresAt() < System.currentTimeMillis()) {
+            if (node != null) remove(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return node.value();
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // Yüklemeden önce alınan generation hâlâ geçerliyse yazar
+    public synchronized void putIfCurrent(K key, V value, long expectedGeneration) {
+        if (generation.get() != expectedGeneration) return;
+        put(key, value);
+    }
+
+    public synchronized void put(K key, V value) {
+        int w = Math.max(1, weigher.applyAsInt(value));
+        if (w > maxWeight) return;
+        remove(key);
+        Iterator<Map.Entry<K, Node<V>>> eldest = map.entrySet().iterator();
+        if (weight + w > maxWeight && !map.isEmpty()) {
+            K victimKey = map.keySet().iterator().next();
+            if (sketch.frequency(key.hashCode()) < sketch.frequency(victimKey.hashCode())) {
+                rejections.increment();
+                return;
+            }
+        }
+        while (weight + w > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, Node<V>> victim = eldest.next();
+            weight -= victim.getValue().weight();
+            eldest.remove();
+            evictions.increment();
+        }
+        map.put(key, new Node<>(value, w, System.currentTimeMillis() + ttlMs));
+        weight += w;
+        puts.increment();
+    }
+
+    public synchronized int invalidateIf(Predicate<K> predicate) {
+        generation.incrementAndGet();
+        int removed = 0;
+        Iterator<Map.Entry<K, Node<V>>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Node<V>> e = it.next();
+            if (predicate.test(e.getKey())) {
+                weight -= e.getValue().weight();
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        map.clear();
+        weight = 0;
+    }
+
+    private void remove(K key) {
+        Node<V> old = map.remove(key);
+        if (old != null) weight -= old.weight();
+    }
+
+    public synchronized int size() { return map.size(); }
+    public synchronized long weight() { return weight; }
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long puts() { return puts.sum(); }
+    public long evictions() { return evictions.sum(); }
+    public long rejections() { return rejections.sum(); }
+
+    // Count-Min sketch (4 satır); toplam artış örnek boyutuna ulaşınca sayaçlar yarıya iner (yaşlandırma)
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final int[][] counts;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(expectedEntries * 4 - 1) << 1;
+            counts = new int[DEPTH][width];
+            mask = width - 1;
+            sampleSize = width * 10;
+        }
+
+        void increment(int hash) {
+            for (int i = 0; i < DEPTH; i++) {
+                counts[i][index(hash, i)]++;
+            }
+            if (++additions >= sampleSize) {
+                for (int[] row : counts) {
+                    for (int j = 0; j < row.length; j++) row[j] >>>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < DEPTH; i++) {
+                min = Math.min(min, counts[i][index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            return h & mask;
+        }
+    }
+}
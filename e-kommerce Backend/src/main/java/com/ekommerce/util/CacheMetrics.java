@@ -0,0 +1,29 @@
+package com.ekommerce.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// BoundedCache istatistiklerini cache=<ad> etiketiyle Micrometer'a bağlar
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    public static void register(BoundedCache<?, ?> cache, String name, String weightDescription, MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::hits)
+                .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedCache::misses)
+                .tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.puts", cache, BoundedCache::puts)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedCache::evictions)
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.admission.rejections", cache, BoundedCache::rejections)
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.size", cache, BoundedCache::size)
+                .tag("cache", name).register(registry);
+        Gauge.builder("cache.weight", cache, BoundedCache::weight)
+                .tag("cache", name).description(weightDescription).register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ekommerce.util;
+
+// Sabit bellekli frekans tahmini (Count-Min): her satırda bir sayaç artar, tahmin satırların en küçüğüdür.
+// Yalnızca artışlarda tahmin gerçek değerden küçük olamaz; eksiltmeler (iptal) aynı hücrelerden düşülür.
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0x85EBCA77C2B2AE63L};
+
+    private final long[][] counts;
+    private final int mask;
+
+    public CountMinSketch(int width) {
+        int w = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.counts = new long[SEEDS.length][w];
+        this.mask = w - 1;
+    }
+
+    public void add(long key, long delta) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i][index(key, i)] += delta;
+        }
+    }
+
+    public long estimate(long key) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < counts.length; i++) {
+            min = Math.min(min, counts[i][index(key, i)]);
+        }
+        return Math.max(0, min);
+    }
+
+    private int index(long key, int row) {
+        long h = key * SEEDS[row];
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+}
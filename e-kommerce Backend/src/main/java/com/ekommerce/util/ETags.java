@@ -0,0 +1,52 @@
+package com.ekommerce.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Koşullu GET yardımcıları: güçlü ETag üretimi ve If-None-Match / If-Modified-Since kontrolü
+public final class ETags {
+
+    // Tarayıcı yanıtı saklayabilir ama her kullanımda doğrular (Spring Security'nin varsayılan no-store'u yerine)
+    private static final String REVALIDATE = "no-cache";
+
+    // lastModified bilinmiyorsa -1
+    public record Version(String etag, long lastModified) { }
+
+    private ETags() {
+    }
+
+    // Parçaların SHA-256 özetinin ilk 16 baytı; aynı parçalar aynı ETag'i verir
+    public static String strong(Object... parts) {
+        MessageDigest digest = sha256();
+        for (Object part : parts) {
+            digest.update(part instanceof byte[] bytes ? bytes : String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return '"' + HexFormat.of().formatHex(digest.digest(), 0, 16) + '"';
+    }
+
+    // Eşleşirse 304 hazırlanır ve true döner; çağıran gövde üretmeden null dönmelidir.
+    // Her iki durumda da ETag/Last-Modified başlıkları yazılır.
+    public static boolean checkNotModified(ServletWebRequest request, Version version) {
+        if (version == null || version.etag() == null) return false;
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        }
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
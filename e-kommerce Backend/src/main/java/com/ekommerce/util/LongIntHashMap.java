@@ -0,0 +1,71 @@
+package com.ekommerce.util;
+
+import java.util.Arrays;
+
+// long -> int açık adresli (doğrusal yoklama) hash haritası: kutulama yok, kayıt başına 12 bayt.
+// Silme desteklenmez; Long.MIN_VALUE anahtar olarak kullanılamaz. Eşzamanlı erişim çağıranın sorumluluğundadır.
+public class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = LongObjectHashMap.mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+            if (keys[i] == EMPTY) return 0;
+        }
+    }
+
+    // Yeni değeri döner
+    public int addTo(long key, int delta) {
+        int mask = keys.length - 1;
+        int i = LongObjectHashMap.mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == key) return values[i] += delta;
+        keys[i] = key;
+        values[i] = delta;
+        if (++size * 2 > keys.length) grow();
+        return delta;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public interface Visitor {
+        void accept(long key, int value);
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.accept(keys[i], values[i]);
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = LongObjectHashMap.mix(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
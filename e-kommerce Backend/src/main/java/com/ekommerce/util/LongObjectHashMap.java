@@ -0,0 +1,82 @@
+package com.ekommerce.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+// long -> nesne açık adresli hash haritası (bkz. LongIntHashMap); silme desteklenmez.
+public class LongObjectHashMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return (V) values[i];
+            if (keys[i] == EMPTY) return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<V> factory) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+        if (keys[i] == key) return (V) values[i];
+        V value = factory.apply(key);
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) grow();
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public interface Visitor<V> {
+        void accept(long key, V value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<V> visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    // Ardışık id'ler tabloda kümelenmesin diye karıştırılır (SplitMix64 sonlandırıcısı)
+    static int mix(long key) {
+        long h = key;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ekommerce.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Kuruş cinsinden (long) tutar. Sepet/sipariş hesapları bununla yapılır; BigDecimal'e yalnızca API yanıtında
+// ve veritabanı sütununda (MoneyConverter) dönülür. Taşma sessizce sarmaz, ArithmeticException fırlatır.
+public record Money(long minor) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    // Fiyat sütunları 2 ondalıklı; fazlası yarım yukarı yuvarlanır
+    public static Money of(BigDecimal amount) {
+        if (amount == null) return null;
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minor, quantity));
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ekommerce.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+// DECIMAL(10,2) sütun <-> Money; dönüşüm satır yüklenirken/yazılırken bir kez yapılır
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return Money.of(amount);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ekommerce.util;
+
+import com.ekommerce.dto.ProductSummary;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+// Keyset sayfalama için son satırın (sortKey, id) çiftini taşıyan opak cursor
+public class ProductCursor {
+
+    // Sadece indeksli sütunlar; her sayfa sınırlı bir indeks aralık taraması olur
+    public static final Set<String> SORT_KEYS = Set.of("createdAt", "price", "sales");
+
+    private final String sortBy;
+    private final boolean desc;
+    private final Comparable<?> value;
+    private final Long id;
+
+    private ProductCursor(String sortBy, boolean desc, Comparable<?> value, Long id) {
+        this.sortBy = sortBy;
+        this.desc = desc;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getSortBy() { return sortBy; }
+    public boolean isDesc() { return desc; }
+    public Comparable<?> getValue() { return value; }
+    public Long getId() { return id; }
+
+    public static void checkSortKey(String sortBy) {
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new RuntimeException("Cursor modunda geçersiz sıralama alanı: " + sortBy);
+        }
+    }
+
+    public static String encode(ProductSummary last, String sortBy, boolean desc) {
+        Object value = switch (sortBy) {
+            case "createdAt" -> last.createdAt();
+            case "price" -> last.price();
+            default -> last.sales() == null ? 0L : last.sales();
+        };
+        String raw = sortBy + "|" + (desc ? "d" : "a") + "|" + value + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor, String sortBy, boolean desc) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(desc ? "d" : "a")) {
+                throw new IllegalArgumentException("cursor sıralaması uyuşmuyor");
+            }
+            Comparable<?> value = switch (sortBy) {
+                case "createdAt" -> LocalDateTime.parse(parts[2]);
+                case "price" -> new BigDecimal(parts[2]);
+                default -> Long.valueOf(parts[2]);
+            };
+            return new ProductCursor(sortBy, desc, value, Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Geçersiz cursor");
+        }
+    }
+}
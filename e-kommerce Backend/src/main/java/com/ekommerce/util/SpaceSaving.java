@@ -0,0 +1,47 @@
+package com.ekommerce.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Space-Saving: en fazla "capacity" anahtar izlenir; dolunca en küçük sayaç yeni anahtara devredilir.
+// Gerçekten sık görülen anahtarlar (sıklığı toplam/capacity'den büyük olanlar) listeden düşmez.
+// Sayımlar için aday listesidir; kesin değerler ayrıca (ör. Count-Min) tahmin edilir.
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, long[]> counters = new HashMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(long key, long delta) {
+        long[] c = counters.get(key);
+        if (c != null) {
+            c[0] += delta;
+            if (c[0] <= 0) counters.remove(key);
+            return;
+        }
+        if (delta <= 0) return;
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{delta});
+            return;
+        }
+        // Dolu: en küçük sayaç yeni anahtara geçer (O(capacity), yalnızca yeni anahtarda)
+        Long minKey = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<Long, long[]> e : counters.entrySet()) {
+            if (e.getValue()[0] < min) {
+                min = e.getValue()[0];
+                minKey = e.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{min + delta});
+    }
+
+    public Set<Long> keys() {
+        return counters.keySet();
+    }
+}
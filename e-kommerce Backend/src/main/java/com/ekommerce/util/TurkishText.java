@@ -0,0 +1,51 @@
+package com.ekommerce.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class TurkishText {
+
+    private static final Locale TR = Locale.forLanguageTag("tr-TR");
+
+    // Türkçe kurallarıyla küçült (I -> ı, İ -> i), ardından aksanları katla ki "sise" ile "Şişe" eşleşsin
+    public static String fold(String text) {
+        if (text == null) return "";
+        String lower = text.toLowerCase(TR);
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            switch (c) {
+                case 'ı' -> sb.append('i');
+                case 'ş' -> sb.append('s');
+                case 'ğ' -> sb.append('g');
+                case 'ç' -> sb.append('c');
+                case 'ö' -> sb.append('o');
+                case 'ü' -> sb.append('u');
+                case 'â' -> sb.append('a');
+                case 'î' -> sb.append('i');
+                case 'û' -> sb.append('u');
+                case '\u0307' -> { } // "İ".toLowerCase(ROOT) artığı
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Harf/rakam dışındaki her şey ayraçtır
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -3,6 +3,8 @@
 ALTER TABLE product ADD COLUMN views BIGINT DEFAULT 0;
 ALTER TABLE product ADD COLUMN sales BIGINT DEFAULT 0;
 ALTER TABLE product ADD COLUMN featured BOOLEAN DEFAULT FALSE;
+-- Edit counter used for ETags (updated_at only has second precision)
+ALTER TABLE product ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
 
 -- Align orders table with JPA entity Orders (fields used by Hibernate inserts)
 -- Add seller reference (single-seller rule)
@@ -34,3 +36,12 @@ ALTER TABLE order_item ADD COLUMN price DECIMAL(10,2) NULL;
 ALTER TABLE order_item ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
 -- Optional: FK to users for seller_id
 ALTER TABLE order_item ADD CONSTRAINT fk_order_item_seller_user FOREIGN KEY (seller_id) REFERENCES users(id);
+
+-- Keyset pagination on /api/products (cursor mode) relies on these composite indexes
+UPDATE product SET sales = 0 WHERE sales IS NULL;
+CREATE INDEX idx_product_created_at_id ON product (created_at, id);
+CREATE INDEX idx_product_price_id ON product (price, id);
+CREATE INDEX idx_product_sales_id ON product (sales, id);
+
+-- Guest cart lookups (CartRepository.findBySessionId)
+CREATE INDEX idx_cart_session_id ON cart (session_id);
@@ -61,6 +61,7 @@ CREATE TABLE IF NOT EXISTS product (
     featured BOOLEAN DEFAULT FALSE,
     views BIGINT DEFAULT 0,
     sales BIGINT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (seller_id) REFERENCES users(id),
@@ -71,6 +72,38 @@ CREATE TABLE IF NOT EXISTS product (
 ALTER TABLE product ADD COLUMN IF NOT EXISTS featured BOOLEAN DEFAULT FALSE;
 ALTER TABLE product ADD COLUMN IF NOT EXISTS views BIGINT DEFAULT 0;
 ALTER TABLE product ADD COLUMN IF NOT EXISTS sales BIGINT DEFAULT 0;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- 5b. Denormalized product read model: listing fields plus category and seller display names.
+-- Written only by ProductReadModel (same transaction as the product/category/seller write); catalog reads use no joins.
+CREATE TABLE IF NOT EXISTS product_read (
+    id INT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    -- TurkishText.fold(name); the name filter matches on it with binary comparison, same rule as the facet counts
+    name_folded VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    description TEXT,
+    price DECIMAL(10,2) NOT NULL,
+    stock INT,
+    image_url VARCHAR(500),
+    featured BOOLEAN DEFAULT FALSE,
+    status ENUM('ACTIVE', 'INACTIVE', 'OUT_OF_STOCK') DEFAULT 'ACTIVE',
+    views BIGINT DEFAULT 0,
+    sales BIGINT DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    category_id INT,
+    category_name VARCHAR(100),
+    seller_id INT,
+    seller_name VARCHAR(255),
+    seller_shop_name VARCHAR(255),
+    INDEX idx_product_read_category_created (category_id, created_at, id),
+    INDEX idx_product_read_created (created_at, id),
+    INDEX idx_product_read_price (price, id),
+    INDEX idx_product_read_sales (sales, id),
+    INDEX idx_product_read_seller (seller_id, created_at)
+);
+ALTER TABLE product_read ADD COLUMN IF NOT EXISTS name_folded VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin AFTER name;
 
 -- 6. Shopping Carts
 CREATE TABLE IF NOT EXISTS cart (
@@ -0,0 +1,118 @@
+package com.ekommerce.service;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Misafir sepeti belirteci: imza, kanonik base64 kontrolü, anahtar türetme ve istekten okuma sırası
+class GuestCartTokenServiceTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private final GuestCartTokenService tokens = new GuestCartTokenService("", "jwt-secret");
+
+    @Test
+    void roundTrip() {
+        String guestId = tokens.newGuestId();
+        assertEquals(22, guestId.length());
+        assertEquals(guestId, tokens.verify(tokens.tokenFor(guestId)));
+        assertNotEquals(guestId, tokens.newGuestId());
+    }
+
+    @Test
+    void tamperedIdIsRejected() {
+        String guestId = tokens.newGuestId();
+        String token = tokens.tokenFor(guestId);
+        String forgedId = replaceAt(guestId, 0, other(guestId.charAt(0)));
+        assertNull(tokens.verify(forgedId + token.substring(guestId.length())));
+    }
+
+    @Test
+    void tamperedOrNonCanonicalSignatureIsRejected() {
+        String token = tokens.tokenFor(tokens.newGuestId());
+        int last = token.length() - 1;
+        assertNull(tokens.verify(replaceAt(token, last, other(token.charAt(last)))));
+
+        // 16 baytlık imzanın son karakterinde yalnızca üst 2 bit anlamlı; alt bitleri değişen metin aynı baytlara çözülür
+        int index = ALPHABET.indexOf(token.charAt(last));
+        String nonCanonical = replaceAt(token, last, ALPHABET.charAt(index ^ 1));
+        String signature = token.substring(token.indexOf('.') + 1);
+        String altered = nonCanonical.substring(nonCanonical.indexOf('.') + 1);
+        assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(Base64.getUrlDecoder().decode(altered)), signature);
+        assertNull(tokens.verify(nonCanonical));
+    }
+
+    @Test
+    void wrongLengthIdIsRejected() {
+        String shortId = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[15]);
+        String longId = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[17]);
+        assertNull(tokens.verify(tokens.tokenFor(shortId)));
+        assertNull(tokens.verify(tokens.tokenFor(longId)));
+        assertNull(tokens.verify(tokens.tokenFor("not*base64*at*all*!!")));
+    }
+
+    @Test
+    void missingOrExtraSeparatorIsRejected() {
+        String guestId = tokens.newGuestId();
+        String token = tokens.tokenFor(guestId);
+        assertNull(tokens.verify(token.replace(".", "")));
+        assertNull(tokens.verify(token + "."));
+        assertNull(tokens.verify(guestId + "." + token));
+        assertNull(tokens.verify("." + token.substring(token.indexOf('.') + 1)));
+        assertNull(tokens.verify(null));
+        assertNull(tokens.verify(""));
+    }
+
+    @Test
+    void tokenFromAnotherKeyIsRejected() {
+        String guestId = tokens.newGuestId();
+        assertNull(tokens.verify(new GuestCartTokenService("", "other-secret").tokenFor(guestId)));
+        assertNull(tokens.verify(new GuestCartTokenService("cart-secret", "jwt-secret").tokenFor(guestId)));
+        // Türetilmiş anahtar: jwt.secret'ın kendisiyle imzalanan belirteç geçmez
+        assertNull(tokens.verify(new GuestCartTokenService("jwt-secret", "").tokenFor(guestId)));
+        // Aynı ayarla açılan başka düğüm kabul eder
+        assertEquals(guestId, new GuestCartTokenService("", "jwt-secret").verify(tokens.tokenFor(guestId)));
+    }
+
+    @Test
+    void missingSecretFailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new GuestCartTokenService("", ""));
+        assertThrows(IllegalStateException.class, () -> new GuestCartTokenService(" ", " "));
+    }
+
+    @Test
+    void resolvePrefersParamThenHeaderThenCookie() {
+        String fromParam = tokens.newGuestId();
+        String fromHeader = tokens.newGuestId();
+        String fromCookie = tokens.newGuestId();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(GuestCartTokenService.HEADER, tokens.tokenFor(fromHeader));
+        request.setCookies(new Cookie(GuestCartTokenService.COOKIE, tokens.tokenFor(fromCookie)));
+
+        assertEquals(fromParam, tokens.resolve(request, tokens.tokenFor(fromParam)));
+        assertEquals(fromHeader, tokens.resolve(request, null));
+        assertEquals(fromHeader, tokens.resolve(request, " "));
+        // Geçersiz parametre alttakilere düşmez
+        assertNull(tokens.resolve(request, "bozuk"));
+
+        MockHttpServletRequest cookieOnly = new MockHttpServletRequest();
+        cookieOnly.setCookies(new Cookie("other", "x"), new Cookie(GuestCartTokenService.COOKIE, tokens.tokenFor(fromCookie)));
+        assertEquals(fromCookie, tokens.resolve(cookieOnly, null));
+        assertNull(tokens.resolve(new MockHttpServletRequest(), null));
+    }
+
+    private static char other(char c) {
+        return c == 'A' ? 'B' : 'A';
+    }
+
+    private static String replaceAt(String s, int index, char c) {
+        return s.substring(0, index) + c + s.substring(index + 1);
+    }
+}
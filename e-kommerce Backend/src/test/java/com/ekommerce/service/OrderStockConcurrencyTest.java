@@ -0,0 +1,232 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.OrderDto;
+import com.ekommerce.entity.OrderItem;
+import com.ekommerce.entity.PaymentMethod;
+import com.ekommerce.entity.Product;
+import com.ekommerce.entity.User;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Flash satış senaryosu: 500 alıcı aynı anda 100 adetlik ürünü ister. Koşullu UPDATE ile tam 100 sipariş oluşmalı,
+// stok negatife düşmemeli ve ürün OUT_OF_STOCK olmalı. Gerçek satır kilitleri için H2 (MySQL modu); testler
+// transaction dışında çalışır ki her alıcı kendi transaction'ını commit etsin.
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:stock;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=60000",
+        "spring.datasource.hikari.maximum-pool-size=50",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never",
+        "db.stream-fetch-size=1000",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({OrderService.class, ProductStockService.class, ProductReadModel.class, ProductCounterService.class,
+        ProductRankingService.class, ProductCoPurchaseIndex.class, OrderStockConcurrencyTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStockConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStockConcurrencyTest.class);
+
+    private static final int BUYERS = 500;
+    private static final int STOCK = 100;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private OrderService orderService;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelBuyersNeverOversell() throws Exception {
+        User seller = user("seller-flash");
+        Product product = product(seller, "Flaş ürün", STOCK);
+        List<User> buyers = users("flash", BUYERS);
+
+        AtomicInteger ordered = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(BUYERS);
+
+        List<Thread> threads = new ArrayList<>(BUYERS);
+        for (User buyer : buyers) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    orderService.createOrder(order(product.getId(), 1), buyer.getId());
+                    ordered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (e.getMessage() != null && e.getMessage().startsWith("Yetersiz stok")) {
+                        soldOut.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        for (Thread thread : threads) thread.join();
+
+        log.debug("{} alıcı, {} stok: {} sipariş, {} yetersiz stok, {} ms",
+                BUYERS, STOCK, ordered.get(), soldOut.get(), elapsedMs);
+
+        assertTrue(unexpected.isEmpty(), () -> "Beklenmeyen hatalar: " + unexpected);
+        assertEquals(STOCK, ordered.get());
+        assertEquals(BUYERS - STOCK, soldOut.get());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT stock_quantity, status, version FROM product WHERE id = ?", product.getId());
+        assertEquals(0, ((Number) row.get("stock_quantity")).intValue());
+        assertEquals("OUT_OF_STOCK", row.get("status"));
+        assertEquals(product.getVersion() + STOCK, ((Number) row.get("version")).longValue());
+
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_item WHERE product_id = ?", Integer.class, product.getId()));
+        assertEquals(STOCK, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT order_id) FROM order_item WHERE product_id = ?", Integer.class, product.getId()));
+
+        // Okuma modeli aynı transaction'larda güncellendi
+        Map<String, Object> read = jdbcTemplate.queryForMap(
+                "SELECT stock, status FROM product_read WHERE id = ?", product.getId());
+        assertEquals(0, ((Number) read.get("stock")).intValue());
+        assertEquals("OUT_OF_STOCK", read.get("status"));
+    }
+
+    @Test
+    void insufficientLineRollsBackWholeOrder() {
+        User seller = user("seller-rollback");
+        Product plenty = product(seller, "Bol stok", 10);
+        Product scarce = product(seller, "Az stok", 1);
+        User buyer = user("buyer-rollback");
+
+        OrderDto dto = order(plenty.getId(), 3);
+        dto.getItems().add(item(scarce.getId(), 2));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> orderService.createOrder(dto, buyer.getId()));
+        assertEquals("Yetersiz stok: Az stok", e.getMessage());
+
+        assertEquals(10, stock(plenty.getId()));
+        assertEquals(1, stock(scarce.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_item WHERE product_id IN (?, ?)", Integer.class, plenty.getId(), scarce.getId()));
+    }
+
+    @Test
+    void cancelRestocksAndReactivates() {
+        User seller = user("seller-cancel");
+        Product product = product(seller, "Son adet", 2);
+        User buyer = user("buyer-cancel");
+
+        OrderDto created = orderService.createOrder(order(product.getId(), 2), buyer.getId());
+        assertEquals(0, stock(product.getId()));
+        assertEquals("OUT_OF_STOCK", status(product.getId()));
+
+        orderService.cancelOrder(created.getId(), buyer.getEmail());
+        assertEquals(2, stock(product.getId()));
+        assertEquals("ACTIVE", status(product.getId()));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT stock FROM product_read WHERE id = ?", Integer.class, product.getId()));
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM product WHERE id = ?", Integer.class, productId);
+    }
+
+    private String status(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM product WHERE id = ?", String.class, productId);
+    }
+
+    private static OrderDto order(Long productId, int quantity) {
+        OrderDto dto = new OrderDto();
+        dto.setShippingAddress("Test adresi");
+        dto.setPaymentMethod(PaymentMethod.CARD);
+        dto.setItems(new ArrayList<>(List.of(item(productId, quantity))));
+        return dto;
+    }
+
+    private static OrderItem item(Long productId, int quantity) {
+        Product product = new Product();
+        product.setId(productId);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private Product product(User seller, String name, int stock) {
+        return transactionTemplate.execute(tx -> {
+            Product product = new Product();
+            product.setName(name);
+            product.setPrice(new BigDecimal("49.90"));
+            product.setStock(stock);
+            product.setStatus(Product.Status.ACTIVE);
+            product.setSeller(seller);
+            return productRepository.save(product);
+        });
+    }
+
+    private User user(String name) {
+        return users(name, 1).get(0);
+    }
+
+    private List<User> users(String prefix, int count) {
+        return transactionTemplate.execute(tx -> {
+            List<User> users = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                User user = new User();
+                user.setEmail(prefix + "-" + i + "@test.local");
+                user.setPassword("x");
+                users.add(user);
+            }
+            return userRepository.saveAll(users);
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package com.ekommerce.service;
+
+import com.ekommerce.repository.OrderItemRepository;
+import com.ekommerce.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Artımlı promote ile tutulan komşu listeleri, sayımlardan sıfırdan hesaplanan ilk N ile karşılaştırılır
+// (eşitlikler ve dolu liste dahil); açılış yüklemesi sürerken gelen siparişlerin pending/seen ile bir kez sayılması
+class ProductCoPurchaseIndexTest {
+
+    private static final int MAX_ORDER_ITEMS = 8;
+
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    // Kaba kuvvet: ürün -> komşu -> birlikte alınma sayısı
+    private final Map<Long, Map<Long, Integer>> counts = new HashMap<>();
+
+    private ProductCoPurchaseIndex index() {
+        ProductCoPurchaseIndex index = new ProductCoPurchaseIndex();
+        ReflectionTestUtils.setField(index, "orderItemRepository", orderItemRepository);
+        ReflectionTestUtils.setField(index, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(index, "maxOrderItems", MAX_ORDER_ITEMS);
+        return index;
+    }
+
+    @Test
+    void incrementalNeighborsMatchRecomputedTops() {
+        Random random = new Random(29);
+        List<Set<Long>> orders = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) orders.add(randomBasket(random, 60));
+
+        when(orderItemRepository.streamOrderProducts(anyLong(), any())).thenReturn(Stream.empty());
+        ProductCoPurchaseIndex incremental = index();
+        incremental.rebuild();
+        for (int i = 0; i < orders.size(); i++) {
+            incremental.recordOrder((long) i + 1, orders.get(i));
+            count(orders.get(i));
+            // Sayılar küçükken eşitlikler bol, sonlara doğru listeler dolu (60 ürün, MAX_NEIGHBORS = 20)
+            if (i % 50 == 0 || i == orders.size() - 1) assertNeighbors(incremental, 60);
+        }
+        assertEquals(ProductCoPurchaseIndex.MAX_NEIGHBORS, incremental.neighbors(1L).length);
+
+        when(orderItemRepository.streamOrderProducts(anyLong(), any())).thenReturn(rows(orders, 1));
+        ProductCoPurchaseIndex rebuilt = index();
+        rebuilt.rebuild();
+        for (long p = 1; p <= 60; p++) assertArrayEquals(incremental.neighbors(p), rebuilt.neighbors(p), "ürün " + p);
+    }
+
+    @Test
+    void ignoresOversizedOrdersAndDuplicateLines() {
+        when(orderItemRepository.streamOrderProducts(anyLong(), any())).thenReturn(Stream.empty());
+        ProductCoPurchaseIndex index = index();
+        index.rebuild();
+
+        List<Long> bulk = new ArrayList<>();
+        for (long p = 1; p <= MAX_ORDER_ITEMS + 1; p++) bulk.add(p);
+        index.recordOrder(1L, bulk);
+        assertArrayEquals(new long[0], index.neighbors(1L));
+
+        index.recordOrder(2L, List.of(1L, 2L, 2L));
+        index.recordOrder(3L, List.of(1L, 3L));
+        index.recordOrder(4L, List.of(1L, 3L));
+        index.recordOrder(5L, List.of(4L));
+        assertArrayEquals(new long[]{3, 2}, index.neighbors(1L));
+        assertArrayEquals(new long[]{1}, index.neighbors(2L));
+        assertArrayEquals(new long[0], index.neighbors(4L));
+    }
+
+    @Test
+    void ordersCommittedDuringLoadAreCountedOnce() {
+        Random random = new Random(31);
+        List<Set<Long>> streamed = new ArrayList<>();
+        for (int i = 0; i < 300; i++) streamed.add(randomBasket(random, 30));
+        Set<Long> late = randomBasket(random, 30);
+        Set<Long> lowIdLate = randomBasket(random, 30);
+        int duplicate = 0;
+        while (streamed.get(duplicate).size() < 2 || streamed.get(duplicate).size() > MAX_ORDER_ITEMS) duplicate++;
+        int duplicateIndex = duplicate;
+
+        ProductCoPurchaseIndex index = index();
+        // Akışın ortasında üç bildirim gelir: akışta zaten olan sipariş (commit yüklemeden önce, bildirim sonra),
+        // akıştan sonra commit edilen sipariş ve id'si küçük olduğu hâlde akışta olmayan sipariş
+        Iterator<Object[]> source = rows(streamed, 1).iterator();
+        Iterator<Object[]> rows = new Iterator<>() {
+            int read;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                if (++read == 200) {
+                    index.recordOrder(duplicateIndex + 1L, streamed.get(duplicateIndex));
+                    index.recordOrder(1000L, late);
+                    index.recordOrder(0L, lowIdLate);
+                }
+                return source.next();
+            }
+        };
+        when(orderItemRepository.streamOrderProducts(anyLong(), any()))
+                .thenReturn(StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, 0), false));
+        index.rebuild();
+
+        streamed.forEach(this::count);
+        count(late);
+        count(lowIdLate);
+        assertNeighbors(index, 30);
+
+        // Yükleme bittikten sonra siparişler doğrudan uygulanır
+        Set<Long> after = randomBasket(random, 30);
+        index.recordOrder(2000L, after);
+        count(after);
+        assertNeighbors(index, 30);
+    }
+
+    @Test
+    void failedLoadStopsBufferingOrders() {
+        when(orderItemRepository.streamOrderProducts(anyLong(), any())).thenThrow(new RuntimeException("bağlantı koptu"));
+        ProductCoPurchaseIndex index = index();
+        assertThrows(RuntimeException.class, index::rebuild);
+
+        index.recordOrder(1L, List.of(1L, 2L));
+        assertArrayEquals(new long[]{2}, index.neighbors(1L));
+        assertArrayEquals(new long[]{1}, index.neighbors(2L));
+    }
+
+    private void assertNeighbors(ProductCoPurchaseIndex index, int products) {
+        for (long p = 1; p <= products; p++) {
+            long[] expected = counts.getOrDefault(p, Map.of()).entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<Long, Integer>>comparingInt(e -> -e.getValue())
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(ProductCoPurchaseIndex.MAX_NEIGHBORS)
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            assertArrayEquals(expected, index.neighbors(p), "ürün " + p);
+        }
+    }
+
+    private void count(Set<Long> basket) {
+        if (basket.size() < 2 || basket.size() > MAX_ORDER_ITEMS) return;
+        for (Long a : basket) {
+            for (Long b : basket) {
+                if (!a.equals(b)) counts.computeIfAbsent(a, k -> new HashMap<>()).merge(b, 1, Integer::sum);
+            }
+        }
+    }
+
+    // Küçük id'ler daha sık: satırlarda hem belirgin sıralama hem eşitlik olur; arada toptan ve tek ürünlü siparişler
+    private static Set<Long> randomBasket(Random random, int products) {
+        int size = random.nextInt(20) == 0 ? MAX_ORDER_ITEMS + 2 : 1 + random.nextInt(5);
+        Set<Long> basket = new LinkedHashSet<>();
+        while (basket.size() < size) {
+            double r = random.nextDouble();
+            basket.add(1 + (long) (r * r * products));
+        }
+        return basket;
+    }
+
+    // Sipariş id sırasıyla (sipariş id, ürün id) satırları
+    private static Stream<Object[]> rows(List<Set<Long>> orders, long firstId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            for (Long product : orders.get(i)) rows.add(new Object[]{firstId + i, product});
+        }
+        return rows.stream();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ekommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Bekleyen artış sayacı: aynı penceredeki satış ve iptal birbirini götürmeli, flush sonrası sıfırlanmalı
+class ProductCounterServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductCounterService counters;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        counters = new ProductCounterService(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void saleAndCancelInSameWindowLeaveNothingPending() {
+        counters.recordSale(1L, 3);
+        counters.recordSale(1L, -3);
+        assertEquals(0, counters.pendingDeltas());
+
+        counters.flush();
+        assertEquals(0, counters.pendingDeltas());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void partialCancelFlushesNetAndDrains() {
+        counters.recordSale(1L, 3);
+        counters.recordSale(1L, -1);
+        counters.recordView(2L);
+        counters.recordView(2L);
+        assertEquals(4, counters.pendingDeltas());
+
+        counters.flush();
+        assertEquals(0, counters.pendingDeltas());
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batch.capture());
+        List<Object[]> rows = batch.getAllValues().get(0);
+        assertEquals(2, rows.size());
+        for (Object[] row : rows) {
+            if (row[2].equals(1L)) assertArrayEquals(new Object[]{0L, 2L, 1L}, row);
+            else assertArrayEquals(new Object[]{2L, 0L, 2L}, row);
+        }
+    }
+
+    @Test
+    void failedFlushKeepsDeltasPending() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("zaman aşımı"));
+        counters.recordSale(1L, 2);
+        counters.recordSale(2L, -1);
+
+        counters.flush();
+        assertEquals(3, counters.pendingDeltas());
+    }
+}
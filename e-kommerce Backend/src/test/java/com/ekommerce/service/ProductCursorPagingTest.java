@@ -0,0 +1,122 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.CursorPageDto;
+import com.ekommerce.dto.ProductDto;
+import com.ekommerce.entity.Product;
+import com.ekommerce.entity.ProductRead;
+import com.ekommerce.repository.ProductReadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Keyset sayfalama (seekPredicate): bol eşit sıralama değeri olan katalogda her alan ve yön için sayfalar uç uca
+// eklendiğinde tam sıralı liste çıkmalı; eşitlikler id ile ayrılır, satır atlanmaz ya da tekrarlanmaz
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:cursor;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=never",
+        "db.stream-fetch-size=1000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductCursorPagingTest {
+
+    private static final int PRODUCTS = 60;
+
+    @Autowired private ProductReadRepository productReadRepository;
+
+    private final List<ProductRead> rows = new ArrayList<>();
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productReadRepository.deleteAll();
+        rows.clear();
+        Random random = new Random(11);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            ProductRead r = new ProductRead();
+            r.setId(id);
+            r.setName("Ürün " + id);
+            r.setNameFolded("urun " + id);
+            // Az sayıda farklı değer: sayfa sınırları sık sık eşit değerlerin ortasına düşer
+            r.setPrice(new BigDecimal(random.nextInt(4) * 5 + ".90"));
+            r.setSales((long) random.nextInt(3));
+            r.setCreatedAt(base.plusSeconds(random.nextInt(5)));
+            r.setStock(1);
+            r.setFeatured(false);
+            r.setViews(0L);
+            r.setVersion(0L);
+            r.setStatus(Product.Status.ACTIVE);
+            r.setCategoryId(id % 2 == 0 ? 1L : 2L);
+            rows.add(r);
+        }
+        productReadRepository.saveAll(rows);
+
+        productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productReadRepository", productReadRepository);
+        ReflectionTestUtils.setField(productService, "productImageService", mock(ProductImageService.class));
+    }
+
+    @Test
+    void pagesConcatenateToFullOrderForEverySortKey() {
+        assertPages("createdAt", ProductRead::getCreatedAt, null);
+        assertPages("price", ProductRead::getPrice, null);
+        assertPages("sales", ProductRead::getSales, null);
+        assertPages("price", ProductRead::getPrice, 2L);
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        CursorPageDto<ProductDto> first = productService.getProductsByCursor(null, null, null, null, "price", "desc", null, 5);
+        assertThrows(RuntimeException.class, () ->
+                productService.getProductsByCursor(null, null, null, null, "price", "asc", first.getNext(), 5));
+        assertThrows(RuntimeException.class, () ->
+                productService.getProductsByCursor(null, null, null, null, "sales", "desc", first.getNext(), 5));
+    }
+
+    private <T extends Comparable<T>> void assertPages(String sortBy, Function<ProductRead, T> key, Long categoryId) {
+        for (String dir : List.of("asc", "desc")) {
+            Comparator<ProductRead> order = Comparator.comparing(key).thenComparing(ProductRead::getId);
+            if (dir.equals("desc")) order = order.reversed();
+            List<Long> expected = rows.stream()
+                    .filter(r -> categoryId == null || r.getCategoryId().equals(categoryId))
+                    .sorted(order).map(ProductRead::getId).toList();
+
+            for (int size : new int[]{1, 3, 7}) {
+                List<Long> actual = new ArrayList<>();
+                String cursor = null;
+                do {
+                    CursorPageDto<ProductDto> page = productService.getProductsByCursor(
+                            null, categoryId, null, null, sortBy, dir, cursor, size);
+                    assertTrue(page.getContent().size() <= size);
+                    page.getContent().forEach(p -> actual.add(p.getId()));
+                    cursor = page.getNext();
+                } while (cursor != null);
+                assertEquals(expected.size(), new HashSet<>(actual).size(), sortBy + " " + dir + " " + size);
+                assertEquals(expected, actual, sortBy + " " + dir + " " + size);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ekommerce.service;
+
+import com.ekommerce.entity.Category;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.OrderItemRepository;
+import com.ekommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Çok satanlar ve trend: rastgele sipariş/iptal/kategori değişikliği dizisinden sonra her adımda sıralamalar
+// kaba kuvvet sayımıyla karşılaştırılır (dolu listenin küçülmesi, yeniden hesap ve kategori taşıma dahil);
+// trend için pencere dışı siparişler ve dilim süresinin dolması ile iptallerin sketch hücrelerini düşürmesi
+class ProductRankingServiceTest {
+
+    private static final long[] CATEGORIES = {1L, 2L, 3L, 4L};
+
+    private final Map<Long, Long> sales = new HashMap<>();
+    private final Map<Long, Long> categoryOf = new HashMap<>();
+
+    private ProductRankingService service(List<Object[]> salesRows, long bucketMs, int buckets) {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findSalesRows()).thenReturn(salesRows);
+        OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+        when(orderItemRepository.findSaleRowsSince(any(), any())).thenReturn(List.of());
+
+        ProductRankingService service = new ProductRankingService();
+        ReflectionTestUtils.setField(service, "productRepository", productRepository);
+        ReflectionTestUtils.setField(service, "orderItemRepository", orderItemRepository);
+        ReflectionTestUtils.setField(service, "bucketMs", bucketMs);
+        ReflectionTestUtils.setField(service, "bucketCount", buckets);
+        ReflectionTestUtils.setField(service, "candidates", 500);
+        ReflectionTestUtils.setField(service, "sketchWidth", 4096);
+        service.reload();
+        return service;
+    }
+
+    @Test
+    void bestSellersMatchBruteForceUnderOrdersCancelsAndCategoryMoves() {
+        Random random = new Random(17);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            long category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            long sold = random.nextInt(4) == 0 ? 0 : random.nextInt(30);
+            rows.add(new Object[]{id, category, sold});
+            categoryOf.put(id, category);
+            if (sold > 0) sales.put(id, sold);
+        }
+        ProductRankingService service = service(rows, 60_000, 12);
+        assertBestSellers(service);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int step = 0; step < 4000; step++) {
+            long id = 1 + random.nextInt(200);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                int quantity = 1 + random.nextInt(5);
+                service.record(id, categoryOf.get(id), quantity, now);
+                sales.merge(id, (long) quantity, Long::sum);
+            } else if (action < 9) {
+                // İptaller çoğunlukla listenin başındakilerden: dolu listede azalma yeniden hesap gerektirir
+                long[] top = service.bestSellers(null);
+                if (top.length > 0 && random.nextBoolean()) id = top[random.nextInt(top.length)];
+                int quantity = 1 + random.nextInt(8);
+                service.record(id, categoryOf.get(id), -quantity, now);
+                long left = Math.max(0, sales.getOrDefault(id, 0L) - quantity);
+                if (left == 0) sales.remove(id); else sales.put(id, left);
+            } else {
+                long previous = categoryOf.get(id);
+                long current = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                categoryOf.put(id, current);
+                service.onProductChanged(new ProductChangedEvent(product(id, current), previous));
+            }
+            assertBestSellers(service);
+        }
+    }
+
+    @Test
+    void fullListShrinksAsTopProductsAreCancelled() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= ProductRankingService.MAX_RESULTS + 5; id++) {
+            rows.add(new Object[]{id, 1L, 10 + id});
+            categoryOf.put(id, 1L);
+            sales.put(id, 10 + id);
+        }
+        ProductRankingService service = service(rows, 60_000, 12);
+        assertEquals(ProductRankingService.MAX_RESULTS, service.bestSellers(null).length);
+
+        // Listedeki ürünler sıfıra inince dışarıdakiler girer, sonra liste kısalır
+        for (long id = ProductRankingService.MAX_RESULTS + 5; id >= 1; id--) {
+            service.record(id, 1L, (int) -(10 + id), LocalDateTime.now());
+            sales.remove(id);
+            assertBestSellers(service);
+        }
+        assertEquals(0, service.bestSellers(null).length);
+    }
+
+    @Test
+    void deletedProductLeavesRankings() {
+        List<Object[]> rows = List.of(new Object[]{1L, 1L, 5L}, new Object[]{2L, 1L, 3L}, new Object[]{3L, 2L, 4L});
+        ProductRankingService service = service(new ArrayList<>(rows), 60_000, 12);
+        assertArrayEquals(new long[]{1, 3, 2}, service.bestSellers(null));
+
+        service.onProductChanged(new ProductChangedEvent(product(1L, 1L), true));
+        assertArrayEquals(new long[]{3, 2}, service.bestSellers(null));
+        assertArrayEquals(new long[]{2}, service.bestSellers(1L));
+        assertArrayEquals(new long[]{3}, service.bestSellers(2L));
+    }
+
+    @Test
+    void trendingMatchesWindowCountsAndCancelsDecrementSketch() {
+        ProductRankingService service = service(new ArrayList<>(), 60_000, 12);
+        Map<Long, Long> window = new HashMap<>();
+        Map<Long, Map<Long, Long>> windowByCategory = new HashMap<>();
+        Random random = new Random(23);
+        LocalDateTime now = LocalDateTime.now();
+        // Sipariş kalemleri: ürün id, kalan adet, sipariş zamanı (saniye ofseti)
+        List<long[]> placed = new ArrayList<>();
+        for (int step = 0; step < 3000; step++) {
+            if (random.nextInt(4) == 0 && !placed.isEmpty()) {
+                // İptal, siparişin ilk verildiği dilimden düşülür
+                long[] order = placed.get(random.nextInt(placed.size()));
+                if (order[1] == 0) continue;
+                long id = order[0];
+                long category = CATEGORIES[(int) (id % CATEGORIES.length)];
+                int quantity = 1 + random.nextInt((int) order[1]);
+                order[1] -= quantity;
+                service.record(id, category, -quantity, now.minusSeconds(order[2]));
+                window.merge(id, (long) -quantity, Long::sum);
+                windowByCategory.get(category).merge(id, (long) -quantity, Long::sum);
+            } else {
+                long id = 1 + random.nextInt(120);
+                long category = CATEGORIES[(int) (id % CATEGORIES.length)];
+                int quantity = 1 + random.nextInt(3);
+                long secondsAgo = random.nextInt(90);
+                placed.add(new long[]{id, quantity, secondsAgo});
+                service.record(id, category, quantity, now.minusSeconds(secondsAgo));
+                window.merge(id, (long) quantity, Long::sum);
+                windowByCategory.computeIfAbsent(category, k -> new HashMap<>()).merge(id, (long) quantity, Long::sum);
+            }
+        }
+        // Pencerenin dışındaki sipariş çok satanlara girer, trende girmez
+        service.record(999L, 1L, 1000, now.minusHours(2));
+        service.refreshTrending();
+
+        assertArrayEquals(topK(window), service.trending(null));
+        for (long category : CATEGORIES) {
+            assertArrayEquals(topK(windowByCategory.getOrDefault(category, Map.of())), service.trending(category));
+        }
+        assertEquals(999L, service.bestSellers(null)[0]);
+    }
+
+    @Test
+    void trendingForgetsExpiredBuckets() throws InterruptedException {
+        ProductRankingService service = service(new ArrayList<>(), 100, 3);
+        service.record(1L, 1L, 5, LocalDateTime.now());
+        service.record(2L, 1L, 3, LocalDateTime.now());
+        service.record(2L, 1L, -3, LocalDateTime.now());
+        service.refreshTrending();
+        assertArrayEquals(new long[]{1}, service.trending(null));
+        assertArrayEquals(new long[]{1}, service.trending(1L));
+
+        Thread.sleep(400);
+        service.refreshTrending();
+        assertArrayEquals(new long[0], service.trending(null));
+        assertArrayEquals(new long[0], service.trending(1L));
+        assertArrayEquals(new long[]{1}, service.bestSellers(null));
+    }
+
+    private void assertBestSellers(ProductRankingService service) {
+        assertArrayEquals(topK(sales), service.bestSellers(null), "tümü");
+        for (long category : CATEGORIES) {
+            Map<Long, Long> members = new HashMap<>();
+            sales.forEach((id, count) -> {
+                if (Objects.equals(categoryOf.get(id), category)) members.put(id, count);
+            });
+            assertArrayEquals(topK(members), service.bestSellers(category), "kategori " + category);
+        }
+    }
+
+    // Azalan adet, eşitlikte küçük id; yalnızca pozitif adetler
+    private static long[] topK(Map<Long, Long> counts) {
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .sorted(Comparator.<Map.Entry<Long, Long>>comparingLong(e -> -e.getValue()).thenComparing(Map.Entry::getKey))
+                .limit(ProductRankingService.MAX_RESULTS)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    private static Product product(long id, long categoryId) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Product p = new Product();
+        p.setId(id);
+        p.setCategory(category);
+        return p;
+    }
+}
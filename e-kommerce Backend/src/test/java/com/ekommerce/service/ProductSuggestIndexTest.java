@@ -0,0 +1,198 @@
+package com.ekommerce.service;
+
+import com.ekommerce.dto.SuggestionDto;
+import com.ekommerce.entity.Product;
+import com.ekommerce.repository.ProductRepository;
+import com.ekommerce.util.TurkishText;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Öneri trie'si: ağırlık sırası, kelime başından eşleşme, Türkçe katlama, aynı adların birleşmesi, kategoriler,
+// MAX_KEY_LENGTH'i aşan önekler ve olaylarla kaldırma; rastgele katalogda kaba kuvvet sonucuyla karşılaştırma
+class ProductSuggestIndexTest {
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findSuggestRows()).thenReturn(rows);
+        index = new ProductSuggestIndex();
+        ReflectionTestUtils.setField(index, "productRepository", repository);
+    }
+
+    @Test
+    void ranksBySalesAndMatchesFromWordStart() {
+        row(1, "Bluetooth Kulaklık", null, null, 50);
+        row(2, "Kulaklık Standı", null, null, 5);
+        row(3, "Kablolu Kulaklık Pro", null, null, 20);
+        row(4, "Kalem", null, null, 100);
+        index.reload();
+
+        assertEquals(List.of("Bluetooth Kulaklık", "Kablolu Kulaklık Pro", "Kulaklık Standı"), texts("kulak"));
+        assertEquals(List.of("Kalem", "Kablolu Kulaklık Pro"), texts("ka"));
+        assertEquals(List.of("Kablolu Kulaklık Pro"), texts("kulaklik p"));
+        assertEquals(List.of(), texts("ulak"));
+        assertEquals(List.of("Kalem"), texts("ka", 1));
+    }
+
+    @Test
+    void foldsTurkishCharacters() {
+        row(1, "Şişe Açacağı", null, null, 1);
+        row(2, "ISITICI Fan", null, null, 2);
+        row(3, "İğne", null, null, 3);
+        index.reload();
+
+        assertEquals(List.of("Şişe Açacağı"), texts("sise"));
+        assertEquals(List.of("Şişe Açacağı"), texts("ŞİŞE aç"));
+        assertEquals(List.of("ISITICI Fan"), texts("ısıt"));
+        assertEquals(List.of("İğne"), texts("igne"));
+        assertEquals(List.of("Şişe Açacağı"), texts("Şişe-Açacağı"));
+    }
+
+    @Test
+    void mergesSameNamedProductsAndAddsCategories() {
+        row(1, "Kalem", 10L, "Kırtasiye", 3);
+        row(2, "  kalem ", 10L, "Kırtasiye", 7);
+        row(3, "Kağıt", 10L, "Kırtasiye", 1);
+        row(4, "Kamera", 20L, "Elektronik", 9);
+        index.reload();
+
+        List<SuggestionDto> kalem = index.suggest("kal", 10);
+        assertEquals(1, kalem.size());
+        assertEquals("kalem", kalem.get(0).getText());
+        assertEquals(2L, kalem.get(0).getId());
+        assertEquals(10, kalem.get(0).getWeight());
+
+        List<SuggestionDto> categories = index.suggest("k", 10).stream().filter(s -> s.getType().equals("category")).toList();
+        assertEquals(1, categories.size());
+        assertEquals("Kırtasiye", categories.get(0).getText());
+        assertEquals(10L, categories.get(0).getId());
+        assertEquals(11, categories.get(0).getWeight());
+        assertEquals(List.of("Elektronik"), texts("elek"));
+    }
+
+    @Test
+    void prefixLongerThanMaxKeyLengthIsFilteredOnCandidates() {
+        String shared = "abcdefghijklmnopqrstuvwx";
+        row(1, shared + "yz kutusu", null, null, 2);
+        row(2, shared + "qq kutusu", null, null, 1);
+        row(3, "Mavi " + shared + "yz", null, null, 3);
+        index.reload();
+
+        assertEquals(List.of("Mavi " + shared + "yz", shared + "yz kutusu", shared + "qq kutusu"), texts(shared));
+        assertEquals(List.of("Mavi " + shared + "yz", shared + "yz kutusu"), texts(shared + "yz"));
+        assertEquals(List.of(shared + "yz kutusu"), texts(shared + "yz k"));
+        assertEquals(List.of(), texts(shared + "zz"));
+    }
+
+    @Test
+    void deleteAndInactiveEventsRemoveAfterRebuild() {
+        row(1, "Kalem", null, null, 3);
+        row(2, "Kalemlik", null, null, 2);
+        row(3, "Kalemtıraş", null, null, 1);
+        rows.add(new Object[]{4L, "Kalem Kutusu", null, null, 9L, Product.Status.INACTIVE});
+        index.reload();
+        assertEquals(List.of("Kalem", "Kalemlik", "Kalemtıraş"), texts("kalem"));
+
+        index.onProductChanged(new ProductChangedEvent(product(1, "Kalem", Product.Status.ACTIVE), true));
+        index.onProductChanged(new ProductChangedEvent(product(2, "Kalemlik", Product.Status.INACTIVE), false));
+        // Trie anlık görüntüdür; değişiklik bir sonraki kurulumda görünür
+        assertEquals(List.of("Kalem", "Kalemlik", "Kalemtıraş"), texts("kalem"));
+        index.rebuildIfDirty();
+        assertEquals(List.of("Kalemtıraş"), texts("kalem"));
+
+        Product renamed = product(3, "Silgi", Product.Status.ACTIVE);
+        index.onProductChanged(new ProductChangedEvent(renamed, false));
+        index.rebuildIfDirty();
+        assertEquals(List.of(), texts("kalem"));
+        assertEquals(List.of("Silgi"), texts("sil"));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomCatalog() {
+        String[] words = {"kablo", "kablosuz", "kulaklık", "kalem", "kutu", "şarj", "şarjlı", "ışık", "isim", "mavi",
+                "mor", "masa", "lamba", "lambader", "çanta", "çay", "cam", "ütü", "uzun", "kısa"};
+        Random random = new Random(7);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int n = 1 + random.nextInt(3);
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < n; w++) {
+                if (w > 0) name.append(' ');
+                String word = words[random.nextInt(words.length)];
+                name.append(random.nextBoolean() ? word : word.toUpperCase(java.util.Locale.forLanguageTag("tr-TR")));
+            }
+            names.add(name.toString());
+            // Farklı satışlar: aynı adlıların temsilcisi ve eşit ağırlık sırası belirsiz olmasın
+            row(i + 1, name.toString(), null, null, i * 7L % 1009);
+        }
+        index.reload();
+
+        for (String prefix : List.of("k", "ka", "kab", "kablo", "kablos", "ş", "sarj", "ı", "is", "ısı", "m", "ma",
+                "mavi k", "lamba", "c", "ç", "çan", "u", "ü", "kutu m", "zz")) {
+            assertEquals(bruteForce(prefix), index.suggest(prefix, ProductSuggestIndex.MAX_RESULTS).stream()
+                    .map(s -> s.getText() + "/" + s.getWeight()).toList(), prefix);
+        }
+    }
+
+    // Aynı katlanmış adlı ürünler tek öneri (satış toplamı, en çok satanın adı); herhangi bir kelime başından önek eşleşmesi
+    private List<String> bruteForce(String prefix) {
+        String key = String.join(" ", TurkishText.tokenize(prefix));
+        Map<String, long[]> weights = new HashMap<>();
+        Map<String, String> texts = new HashMap<>();
+        for (Object[] r : rows) {
+            String folded = String.join(" ", TurkishText.tokenize((String) r[1]));
+            long sales = (Long) r[4];
+            long[] w = weights.computeIfAbsent(folded, k -> new long[]{0, -1});
+            w[0] += sales;
+            if (w[1] < sales) {
+                w[1] = sales;
+                texts.put(folded, ((String) r[1]).trim());
+            }
+        }
+        return weights.keySet().stream()
+                .filter(folded -> (" " + folded).contains(" " + key))
+                .sorted(Comparator.<String>comparingLong(f -> -weights.get(f)[0]).thenComparing(f -> f))
+                .limit(ProductSuggestIndex.MAX_RESULTS)
+                .map(f -> texts.get(f) + "/" + weights.get(f)[0])
+                .toList();
+    }
+
+    private List<String> texts(String prefix) {
+        return texts(prefix, ProductSuggestIndex.MAX_RESULTS);
+    }
+
+    private List<String> texts(String prefix, int limit) {
+        List<SuggestionDto> result = index.suggest(prefix, limit);
+        assertTrue(result.stream().allMatch(s -> s.getType().equals("product") || s.getType().equals("category")));
+        return result.stream().map(SuggestionDto::getText).toList();
+    }
+
+    private void row(long id, String name, Long categoryId, String categoryName, long sales) {
+        rows.add(new Object[]{id, name, categoryId, categoryName, sales, Product.Status.ACTIVE});
+    }
+
+    private static Product product(long id, String name, Product.Status status) {
+        Product p = new Product();
+        p.setId(id);
+        p.setName(name);
+        p.setStatus(status);
+        p.setSales(0L);
+        return p;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ekommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Ağırlık sınırı ve LRU çıkarma, TinyLFU kabul kontrolü, TTL ve yükleme sırasında geçersizleme (putIfCurrent)
+class BoundedCacheTest {
+
+    private static BoundedCache<String, String> cache(long maxWeight, long ttlMs) {
+        return new BoundedCache<>(maxWeight, ttlMs, 64, String::length);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByWeight() {
+        BoundedCache<String, String> cache = cache(10, 60_000);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        assertEquals("aaaa", cache.get("a"));
+        assertEquals(8, cache.weight());
+
+        // Önce ıska (gerçek kullanımdaki gibi), sonra yükleme: c en eski kayıt b kadar sık istendi
+        assertNull(cache.get("c"));
+        cache.put("c", "cccc");
+        assertNull(cache.get("b"));
+        assertEquals("aaaa", cache.get("a"));
+        assertEquals("cccc", cache.get("c"));
+        assertEquals(8, cache.weight());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+
+        // Tek büyük kayıt birden çok kaydı çıkarır; sınırdan ağır kayıt hiç alınmaz
+        cache.get("d");
+        cache.get("d");
+        cache.get("d");
+        cache.put("d", "dddddddd");
+        assertEquals(1, cache.size());
+        assertEquals(8, cache.weight());
+        assertEquals(3, cache.evictions());
+        cache.put("e", "eeeeeeeeeeee");
+        assertNull(cache.get("e"));
+        assertEquals(8, cache.weight());
+    }
+
+    @Test
+    void replacingKeyAdjustsWeight() {
+        BoundedCache<String, String> cache = cache(10, 60_000);
+        cache.put("a", "aaaa");
+        cache.put("a", "aa");
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.weight());
+        assertEquals("aa", cache.get("a"));
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    void rejectsOneOffKeyThatIsLessFrequentThanVictim() {
+        BoundedCache<String, String> cache = cache(10, 60_000);
+        cache.put("hot1", "11111");
+        cache.put("hot2", "22222");
+        for (int i = 0; i < 3; i++) {
+            cache.get("hot1");
+            cache.get("hot2");
+        }
+
+        assertNull(cache.get("once"));
+        cache.put("once", "xxxxx");
+        assertEquals(1, cache.rejections());
+        assertNull(cache.get("once"));
+        assertEquals("11111", cache.get("hot1"));
+        assertEquals("22222", cache.get("hot2"));
+        assertEquals(0, cache.evictions());
+
+        // Yeterince sık istenen anahtar kabul edilir ve en eski kaydı (hot1) çıkarır
+        for (int i = 0; i < 5; i++) cache.get("once");
+        cache.put("once", "xxxxx");
+        assertEquals("xxxxx", cache.get("once"));
+        assertNull(cache.get("hot1"));
+        assertEquals("22222", cache.get("hot2"));
+        assertEquals(1, cache.rejections());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        BoundedCache<String, String> cache = cache(10, 20);
+        cache.put("a", "aaaa");
+        assertEquals("aaaa", cache.get("a"));
+        Thread.sleep(50);
+        long misses = cache.misses();
+        assertNull(cache.get("a"));
+        assertEquals(misses + 1, cache.misses());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void putIfCurrentDropsLoadThatOverlappedInvalidation() {
+        BoundedCache<String, String> cache = cache(100, 60_000);
+        cache.put("product:1", "eski");
+        cache.put("category:1", "kategori");
+
+        long before = cache.generation();
+        // Yükleme sürerken ürün önbelleği geçersizlendi: eski okumanın sonucu yazılmamalı
+        assertEquals(1, cache.invalidateIf(k -> k.startsWith("product:")));
+        cache.putIfCurrent("product:1", "bayat", before);
+        assertNull(cache.get("product:1"));
+        assertEquals("kategori", cache.get("category:1"));
+
+        long current = cache.generation();
+        cache.putIfCurrent("product:1", "yeni", current);
+        assertEquals("yeni", cache.get("product:1"));
+
+        cache.clear();
+        cache.putIfCurrent("product:2", "bayat", current);
+        assertNull(cache.get("product:2"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+}
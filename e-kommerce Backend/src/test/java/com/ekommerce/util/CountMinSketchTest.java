@@ -0,0 +1,55 @@
+package com.ekommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Count-Min: yalnızca artışlarda tahmin gerçek değerin altına inmez ve hata toplam/genişlik mertebesindedir;
+// eksiltmeler aynı hücrelerden düşülür, tahmin negatif olmaz
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderestimatesAndStaysCloseOnIncrements() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+        Map<Long, Long> truth = new HashMap<>();
+        Random random = new Random(3);
+        long total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(3000) + 1L;
+            long delta = 1 + random.nextInt(3);
+            sketch.add(key, delta);
+            truth.merge(key, delta, Long::sum);
+            total += delta;
+        }
+        long overestimate = 0;
+        for (Map.Entry<Long, Long> e : truth.entrySet()) {
+            long estimate = sketch.estimate(e.getKey());
+            assertTrue(estimate >= e.getValue(), "key " + e.getKey());
+            overestimate += estimate - e.getValue();
+        }
+        // Satır başına beklenen hata toplam/genişlik; en küçük satır bunun altında kalmalı
+        assertTrue(overestimate / truth.size() <= total / 1024, "ortalama hata " + overestimate / truth.size());
+    }
+
+    @Test
+    void cancellationsDecrementTheSameCells() {
+        CountMinSketch sketch = new CountMinSketch(64);
+        sketch.add(7L, 10);
+        sketch.add(8L, 4);
+        sketch.add(7L, -4);
+        assertEquals(6, sketch.estimate(7L));
+        assertEquals(4, sketch.estimate(8L));
+        sketch.add(7L, -6);
+        assertEquals(0, sketch.estimate(7L));
+        assertEquals(4, sketch.estimate(8L));
+
+        sketch.add(9L, -3);
+        assertEquals(0, sketch.estimate(9L));
+        assertEquals(0, new CountMinSketch(16).estimate(1L));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ekommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Doğrusal yoklama: aynı yuvaya düşen anahtarlar, büyüme sırasında yeniden yerleşme ve uç değerli anahtarlar;
+// rastgele artışlar HashMap ile karşılaştırılır
+class LongIntHashMapTest {
+
+    @Test
+    void matchesHashMapAcrossGrowth() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 50_000; i++) {
+            long key = switch (random.nextInt(4)) {
+                case 0 -> random.nextInt(100);
+                case 1 -> -random.nextInt(100);
+                case 2 -> random.nextLong();
+                default -> (long) random.nextInt(20_000) << 32;
+            };
+            if (key == Long.MIN_VALUE) continue;
+            int delta = 1 + random.nextInt(3);
+            assertEquals(expected.merge(key, delta, Integer::sum), map.addTo(key, delta));
+        }
+        map.addTo(Long.MAX_VALUE, 7);
+        expected.put(Long.MAX_VALUE, 7);
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key), "key " + key));
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value)));
+        assertEquals(expected, visited);
+        assertEquals(0, map.get(123_456_789_012L));
+    }
+
+    @Test
+    void probesPastCollidingKeys() {
+        // Başlangıç kapasitesi 16: aynı ilk yuvaya düşen anahtarlar ardışık yuvalara yerleşir
+        LongIntHashMap map = new LongIntHashMap(8);
+        int slot = LongObjectHashMap.mix(1L) & 15;
+        List<Long> colliding = new ArrayList<>();
+        for (long key = 1; colliding.size() < 6; key++) {
+            if ((LongObjectHashMap.mix(key) & 15) == slot) colliding.add(key);
+        }
+        for (int i = 0; i < colliding.size(); i++) map.addTo(colliding.get(i), i + 1);
+        map.addTo(colliding.get(2), 10);
+
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals(i == 2 ? 13 : i + 1, map.get(colliding.get(i)));
+        }
+        long absent = colliding.get(colliding.size() - 1) + 1;
+        while ((LongObjectHashMap.mix(absent) & 15) != slot) absent++;
+        assertEquals(0, map.get(absent));
+        assertEquals(6, map.size());
+
+        // Büyüme (yarı doluluk) sonrası çarpışan zincir yeni tabloya taşınır
+        for (long key = 1_000; key < 1_010; key++) map.addTo(key, 1);
+        for (int i = 0; i < colliding.size(); i++) {
+            assertEquals(i == 2 ? 13 : i + 1, map.get(colliding.get(i)));
+        }
+        assertEquals(16, map.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.ekommerce.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 50 satırlık sepet toplamı: BigDecimal.multiply + reduce(add) ile Money (kuruş) karşılaştırması.
+// JMH yerine ısınma turlu basit ölçüm; iş parçacığı başına ayrılan bayt (ThreadMXBean) ve ns/işlem debug'da loglanır.
+// Süre ortama göre oynadığı için yalnızca ayırma miktarı doğrulanır.
+class MoneyBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MoneyBenchmarkTest.class);
+
+    private static final int LINES = 50;
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 50_000;
+
+    private record Line(BigDecimal price, Money money, int quantity) { }
+
+    private static List<Line> cart() {
+        Random random = new Random(42);
+        List<Line> lines = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(500_000), 2);
+            lines.add(new Line(price, Money.of(price), 1 + random.nextInt(5)));
+        }
+        return lines;
+    }
+
+    // Eski CartService.toDto: satır başına multiply, ardından reduce(add); yanıt için satır ve toplam BigDecimal
+    private static long bigDecimalTotal(List<Line> lines) {
+        List<BigDecimal> lineTotals = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            lineTotals.add(line.price().multiply(BigDecimal.valueOf(line.quantity())));
+        }
+        BigDecimal total = lineTotals.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        return total.unscaledValue().longValue();
+    }
+
+    // Yeni yol: kuruş üzerinde çarpma/toplama; BigDecimal yalnızca yanıt alanları için (satır + toplam)
+    private static long moneyTotal(List<Line> lines) {
+        List<BigDecimal> lineTotals = new ArrayList<>(lines.size());
+        long total = 0;
+        for (Line line : lines) {
+            Money lineTotal = line.money().times(line.quantity());
+            lineTotals.add(lineTotal.toBigDecimal());
+            total = Math.addExact(total, lineTotal.minor());
+        }
+        return BigDecimal.valueOf(total, 2).unscaledValue().longValue();
+    }
+
+    @Test
+    void moneyMatchesBigDecimalAndAllocatesLess() {
+        List<Line> lines = cart();
+        assertEquals(bigDecimalTotal(lines), moneyTotal(lines));
+
+        Result bigDecimal = measure(lines, MoneyBenchmarkTest::bigDecimalTotal);
+        Result money = measure(lines, MoneyBenchmarkTest::moneyTotal);
+        log.debug("{} satırlık sepet toplamı: BigDecimal {} ns/işlem, {} bayt/işlem; Money {} ns/işlem, {} bayt/işlem",
+                LINES, Math.round(bigDecimal.nanosPerOp), bigDecimal.bytesPerOp, Math.round(money.nanosPerOp), money.bytesPerOp);
+
+        assertTrue(money.bytesPerOp < bigDecimal.bytesPerOp,
+                "Money yolu daha az ayırmalı: " + money.bytesPerOp + " >= " + bigDecimal.bytesPerOp);
+    }
+
+    @Test
+    void conversionsAndOverflow() {
+        assertEquals(new BigDecimal("12.35"), Money.of(new BigDecimal("12.345")).toBigDecimal());
+        assertEquals(new BigDecimal("37.05"), Money.of(new BigDecimal("12.35")).times(3).toBigDecimal());
+        assertEquals(Money.ofMinor(250), Money.of(new BigDecimal("2.5")));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE / 2 + 1).times(2));
+    }
+
+    private record Result(double nanosPerOp, long bytesPerOp) { }
+
+    private static Result measure(List<Line> lines, ToLongFunction<List<Line>> op) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) sink += op.applyAsLong(lines);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED; i++) sink += op.applyAsLong(lines);
+        long elapsed = System.nanoTime() - started;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        assertTrue(sink != 0);
+        return new Result((double) elapsed / MEASURED, bytes / MEASURED);
+    }
+}
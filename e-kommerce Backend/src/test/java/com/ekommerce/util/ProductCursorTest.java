@@ -0,0 +1,66 @@
+package com.ekommerce.util;
+
+import com.ekommerce.dto.ProductSummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Cursor kodlama/çözme: her sıralama alanı ve yön için gidiş-dönüş; başka sıralamayla ya da bozuk girişle ret
+class ProductCursorTest {
+
+    private static final ProductSummary LAST = summary(42L, new BigDecimal("19.90"), 7L, LocalDateTime.of(2025, 3, 1, 10, 0));
+
+    @Test
+    void roundTripsEverySortKeyAndDirection() {
+        for (boolean desc : new boolean[]{true, false}) {
+            ProductCursor createdAt = ProductCursor.decode(ProductCursor.encode(LAST, "createdAt", desc), "createdAt", desc);
+            assertEquals(LocalDateTime.of(2025, 3, 1, 10, 0), createdAt.getValue());
+            assertEquals(42L, createdAt.getId());
+            assertEquals(desc, createdAt.isDesc());
+            assertEquals("createdAt", createdAt.getSortBy());
+
+            ProductCursor price = ProductCursor.decode(ProductCursor.encode(LAST, "price", desc), "price", desc);
+            assertEquals(new BigDecimal("19.90"), price.getValue());
+            assertEquals(42L, price.getId());
+
+            ProductCursor sales = ProductCursor.decode(ProductCursor.encode(LAST, "sales", desc), "sales", desc);
+            assertEquals(7L, sales.getValue());
+            assertEquals(42L, sales.getId());
+        }
+    }
+
+    @Test
+    void keepsSubSecondTimestampsAndDefaultsMissingSales() {
+        LocalDateTime precise = LocalDateTime.of(2025, 3, 1, 10, 0, 5, 123_456_000);
+        ProductSummary row = summary(9L, new BigDecimal("1.00"), null, precise);
+        assertEquals(precise, ProductCursor.decode(ProductCursor.encode(row, "createdAt", true), "createdAt", true).getValue());
+        assertEquals(0L, ProductCursor.decode(ProductCursor.encode(row, "sales", false), "sales", false).getValue());
+    }
+
+    @Test
+    void rejectsCursorFromDifferentSortOrGarbage() {
+        String cursor = ProductCursor.encode(LAST, "price", true);
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(cursor, "price", false));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(cursor, "sales", true));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode("bozuk!!", "price", true));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(raw("price|d|abc|42"), "price", true));
+        assertThrows(RuntimeException.class, () -> ProductCursor.decode(raw("price|d|19.90"), "price", true));
+        assertThrows(RuntimeException.class, () -> ProductCursor.checkSortKey("name"));
+        ProductCursor.checkSortKey("sales");
+    }
+
+    private static String raw(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductSummary summary(Long id, BigDecimal price, Long sales, LocalDateTime createdAt) {
+        return new ProductSummary(id, "Ürün " + id, null, price, 1, null, false, 0L, sales, createdAt, createdAt,
+                0L, null, null, null, null, null);
+    }
+}
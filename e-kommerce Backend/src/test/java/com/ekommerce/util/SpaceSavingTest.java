@@ -0,0 +1,54 @@
+package com.ekommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Space-Saving: kapasite aşılmaz; sıklığı toplam/kapasite'den büyük anahtarlar tek seferlik akış arasında düşmez;
+// eksiltme izlenen sayacı düşürür, sıfırda anahtar çıkar
+class SpaceSavingTest {
+
+    @Test
+    void keepsHeavyHittersAmongOneOffKeys() {
+        SpaceSaving summary = new SpaceSaving(10);
+        List<Long> stream = new ArrayList<>();
+        for (long heavy = 1; heavy <= 5; heavy++) {
+            for (int i = 0; i < 300; i++) stream.add(heavy);
+        }
+        for (long once = 1000; once < 2000; once++) stream.add(once);
+        Collections.shuffle(stream, new Random(5));
+
+        for (Long key : stream) {
+            summary.add(key, 1);
+            assertTrue(summary.keys().size() <= 10);
+        }
+        // Toplam 2500, eşik 250: her ağır anahtar 300 kez görüldü
+        assertTrue(summary.keys().containsAll(Set.of(1L, 2L, 3L, 4L, 5L)), summary.keys().toString());
+    }
+
+    @Test
+    void decrementsTrackedCountersOnly() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1L, 5);
+        summary.add(2L, 2);
+        summary.add(3L, -1);
+        assertEquals(Set.of(1L, 2L), summary.keys());
+
+        summary.add(2L, -2);
+        assertEquals(Set.of(1L), summary.keys());
+
+        // Dolu listede yeni anahtar en küçük sayacı devralır: 4 düşer, 5 için 1 + 2 = 3
+        summary.add(4L, 1);
+        summary.add(5L, 2);
+        assertEquals(Set.of(1L, 5L), summary.keys());
+        summary.add(5L, -3);
+        assertEquals(Set.of(1L), summary.keys());
+    }
+}
@@ -8,14 +8,18 @@ import { adminService } from '../../services/adminServices';
 
 export default function Productmanagement() {
 	const [products, setProducts] = useState([]);
+	const [totalRecords, setTotalRecords] = useState(0);
+	const [lazy, setLazy] = useState({ first: 0, rows: 10 });
 	const [loading, setLoading] = useState(true);
 	const [editing, setEditing] = useState({});
 	const toast = useRef(null);
 
-	const load = async () => {
+	const load = async (state = lazy) => {
+		setLoading(true);
 		try {
-			const data = await adminService.getAllProducts();
-			setProducts(data || []);
+			const data = await adminService.getAllProducts(Math.floor(state.first / state.rows), state.rows);
+			setProducts(data?.content || []);
+			setTotalRecords(data?.totalElements || 0);
 		} catch (e) {
 			toast.current?.show({ severity: 'error', summary: 'Hata', detail: e?.response?.data?.error || 'Ürünler getirilemedi' });
 		} finally {
@@ -25,6 +29,26 @@ export default function Productmanagement() {
 
 	useEffect(() => { load(); }, []);
 
+	const onPage = (e) => {
+		const next = { first: e.first, rows: e.rows };
+		setLazy(next);
+		load(next);
+	};
+
+	const onExport = async (format) => {
+		try {
+			const blob = await adminService.exportProducts(format);
+			const url = URL.createObjectURL(blob);
+			const a = document.createElement('a');
+			a.href = url;
+			a.download = `products.${format}`;
+			a.click();
+			URL.revokeObjectURL(url);
+		} catch (e) {
+			toast.current?.show({ severity: 'error', summary: 'Hata', detail: 'Dışa aktarılamadı' });
+		}
+	};
+
 	const onDelete = async (row) => {
 		try {
 			await adminService.deleteProduct(row.id);
@@ -62,7 +86,11 @@ export default function Productmanagement() {
 	return (
 		<div>
 			<Toast ref={toast} />
-			<DataTable value={products} loading={loading} paginator rows={10} editMode="row" dataKey="id" onRowEditComplete={(e)=>onSave(e.newData)} responsiveLayout="scroll">
+			<div style={{ display: 'flex', gap: '0.5rem', marginBottom: '0.5rem' }}>
+				<Button label="CSV indir" icon="pi pi-download" className="p-button-sm p-button-outlined" onClick={() => onExport('csv')} />
+				<Button label="NDJSON indir" icon="pi pi-download" className="p-button-sm p-button-outlined" onClick={() => onExport('ndjson')} />
+			</div>
+			<DataTable value={products} loading={loading} lazy paginator first={lazy.first} rows={lazy.rows} totalRecords={totalRecords} onPage={onPage} editMode="row" dataKey="id" onRowEditComplete={(e)=>onSave(e.newData)} responsiveLayout="scroll">
 				<Column field="id" header="ID" sortable style={{ width: 80 }} />
 				<Column field="name" header="İsim" editor={textEditor} sortable />
 				<Column field="price" header="Fiyat" editor={textEditor} sortable />
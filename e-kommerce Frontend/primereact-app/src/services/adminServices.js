@@ -6,8 +6,13 @@ export const adminService = {
     return response.data;
   },
 
-  async getAllProducts() {
-    const response = await api.get('/admin/products');
+  async getAllProducts(page = 0, size = 20) {
+    const response = await api.get('/admin/products', { params: { page, size } });
+    return response.data;
+  },
+
+  async exportProducts(format = 'ndjson') {
+    const response = await api.get('/admin/products/export', { params: { format }, responseType: 'blob' });
     return response.data;
   },
 